@@ -0,0 +1,143 @@
+package holiday.benchmark;
+
+import holiday.DescriptionParser;
+import holiday.HolidayDay;
+import holiday.HolidaySpider;
+import holiday.HolidayYear;
+import holiday.Tuple;
+import lombok.Value;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 基准测试语料: 2008年至今的放假通知正文, 每行一段
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Value
+public class Corpus {
+
+    private static final String ROOT = "/corpus/";
+
+    /**
+     * 通知
+     */
+    List<Paper> papers;
+
+    /**
+     * 读取classpath中的语料
+     *
+     * @return 语料
+     */
+    public static Corpus load() {
+        List<Paper> papers = new ArrayList<>();
+        for (String entry : readLines(ROOT + "index.txt")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            String[] parts = entry.trim().split("\\s+");
+            int year = Integer.parseInt(parts[0]);
+            String file = parts[1];
+            papers.add(new Paper(year, file, String.join("\n", readLines(ROOT + file))));
+        }
+        return new Corpus(Collections.unmodifiableList(papers));
+    }
+
+    /**
+     * 所有通知的规则
+     *
+     * @return 规则
+     */
+    public List<Rule> getRules() {
+        List<Rule> rules = new ArrayList<>();
+        for (Paper paper : papers) {
+            Iterator<Tuple<String, String>> iterator = HolidaySpider.getRules(paper.getText());
+            while (iterator.hasNext()) {
+                Tuple<String, String> rule = iterator.next();
+                rules.add(new Rule(paper.getYear(), rule.v1(), rule.v2()));
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * 按年份合并解析结果, 与fetchHolidayYear的输出结构相同
+     *
+     * @return 每年的假期安排
+     */
+    public List<HolidayYear> getHolidayYears() {
+        Map<Integer, List<Paper>> byYear = papers.stream()
+                .collect(Collectors.groupingBy(Paper::getYear, LinkedHashMap::new, Collectors.toList()));
+        List<HolidayYear> years = new ArrayList<>();
+        byYear.forEach((year, yearPapers) -> {
+            List<String> urls = new ArrayList<>();
+            List<HolidayDay> days = new ArrayList<>();
+            for (Paper paper : yearPapers) {
+                urls.add("https://www.gov.cn/zhengce/content/" + paper.getFile());
+                Iterator<Tuple<String, String>> rules = HolidaySpider.getRules(paper.getText());
+                while (rules.hasNext()) {
+                    Tuple<String, String> rule = rules.next();
+                    days.addAll(new DescriptionParser(rule.v1(), rule.v2(), year).parse());
+                }
+            }
+            years.add(new HolidayYear(year, urls, days));
+        });
+        return years;
+    }
+
+    private static List<String> readLines(String resource) {
+        InputStream in = Corpus.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("找不到语料: " + resource);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 一篇通知
+     */
+    @Value
+    public static class Paper {
+
+        int year;
+
+        /**
+         * 语料文件名
+         */
+        String file;
+
+        String text;
+    }
+
+    /**
+     * 一条规则
+     */
+    @Value
+    public static class Rule {
+
+        int year;
+
+        String name;
+
+        String description;
+    }
+
+}
@@ -0,0 +1,90 @@
+package holiday.benchmark;
+
+import holiday.CrawlPipeline;
+import holiday.HolidaySpider;
+import holiday.HolidayYear;
+import holiday.factory.HttpServiceFactory;
+import holiday.service.HttpConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端抓取的基准测试, 访问本地替身服务, 不需要网络
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrawlBenchmark {
+
+    /**
+     * 每个响应的注入延迟(ms)
+     */
+    @Param({"0", "50"})
+    public long latencyMillis;
+
+    @Param({"HUTOOL", "OKHTTP", "URL_CONNECTION"})
+    public String implementation;
+
+    private GovStandInServer server;
+
+    private CrawlPipeline pipeline;
+
+    private List<Integer> years;
+
+    @Setup
+    public void setup() throws IOException {
+        Corpus corpus = Corpus.load();
+        server = new GovStandInServer(corpus, 0, latencyMillis, latencyMillis / 5);
+        System.setProperty(HolidaySpider.SEARCH_URL_PROPERTY, server.getSearchUrl());
+        pipeline = new CrawlPipeline(CrawlPipeline.Options.builder()
+                .httpService(HttpServiceFactory.createHttpService(HttpConfig.builder()
+                        .implementation(HttpConfig.Implementation.of(implementation))
+                        .requestsPerSecondPerHost(0)
+                        .build()))
+                .build());
+        years = new ArrayList<>();
+        for (Corpus.Paper paper : corpus.getPapers()) {
+            if (!years.contains(paper.getYear())) {
+                years.add(paper.getYear());
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipeline.close();
+        server.close();
+        System.clearProperty(HolidaySpider.SEARCH_URL_PROPERTY);
+    }
+
+    /**
+     * 抓取语料中的所有年份
+     */
+    @Benchmark
+    public List<HolidayYear> fetchAll() {
+        return pipeline.fetchAll(years);
+    }
+
+}
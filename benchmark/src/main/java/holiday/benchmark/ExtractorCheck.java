@@ -0,0 +1,176 @@
+package holiday.benchmark;
+
+import holiday.HolidaySpider;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 对比流式提取与Jsoup的结果
+ * <p>
+ * 对语料中的每篇通知生成替身服务的详情页和几种不规范的写法, 分别用{@link HolidaySpider#extractPaper}和Jsoup
+ * (UCAP-CONTENT下各&lt;p&gt;的{@code text()}, 空行不计)提取, 输出不同的页面, 有差异时退出码为1.
+ * {@code java -cp target/benchmarks.jar holiday.benchmark.ExtractorCheck}
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class ExtractorCheck {
+
+    public static void main(String[] args) {
+        int pages = 0;
+        int failures = 0;
+        for (Corpus.Paper paper : Corpus.load().getPapers()) {
+            for (Markup markup : Markup.values()) {
+                String html = markup.page(paper);
+                List<String> expected = jsoup(html);
+                List<String> actual = HolidaySpider.extractPaper(paper.getFile(), new StringReader(html));
+                pages++;
+                if (!expected.equals(actual)) {
+                    failures++;
+                    System.out.println(paper.getFile() + " " + markup + ": Jsoup " + expected.size()
+                            + "行, 流式提取" + actual.size() + "行, 第一处不同: " + firstDifference(expected, actual));
+                }
+            }
+        }
+        System.out.println(pages + "个页面, " + failures + "个与Jsoup不同");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static List<String> jsoup(String html) {
+        List<String> lines = new ArrayList<>();
+        Element container = Jsoup.parse(html).getElementById("UCAP-CONTENT");
+        if (container != null) {
+            for (Element p : container.getElementsByTag("p")) {
+                String text = p.text();
+                if (!text.isEmpty()) {
+                    lines.add(text);
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static String firstDifference(List<String> expected, List<String> actual) {
+        for (int i = 0; i < Math.max(expected.size(), actual.size()); i++) {
+            String a = i < expected.size() ? expected.get(i) : null;
+            String b = i < actual.size() ? actual.get(i) : null;
+            if (a == null || !a.equals(b)) {
+                return "第" + (i + 1) + "行 " + a + " / " + b;
+            }
+        }
+        return "";
+    }
+
+    /**
+     * 详情页的写法
+     */
+    enum Markup {
+
+        /**
+         * 与替身服务相同
+         */
+        STAND_IN {
+            @Override
+            String page(Corpus.Paper paper) {
+                return GovStandInServer.html(paper);
+            }
+        },
+
+        /**
+         * &lt;p&gt;不结束, 由下一个&lt;p&gt;隐式结束
+         */
+        UNCLOSED {
+            @Override
+            void paragraph(StringBuilder html, String line, int index) {
+                html.append("<p>").append(line).append('\n');
+            }
+        },
+
+        /**
+         * 段落在未结束的&lt;a&gt;、&lt;b&gt;中, 后接&lt;div&gt;或&lt;table&gt;
+         */
+        INLINE_BEFORE_BLOCK {
+            @Override
+            void paragraph(StringBuilder html, String line, int index) {
+                switch (index % 3) {
+                    case 0:
+                        html.append("<p><a href=\"/zhengce/").append(index).append(".htm\">").append(line)
+                                .append("<div class=\"attachment\"></div>");
+                        break;
+                    case 1:
+                        html.append("<p><b>").append(line)
+                                .append("<table><tr><td>附表</td></tr></table>");
+                        break;
+                    default:
+                        html.append("<b><p>").append(line).append("</b><div>附件</div>");
+                }
+            }
+        },
+
+        /**
+         * 段落在表格单元格中, 单元格和&lt;p&gt;都不结束
+         */
+        TABLE {
+            @Override
+            void paragraph(StringBuilder html, String line, int index) {
+                html.append("<table><tbody><tr><td><p>").append(line).append("</tbody></table>");
+            }
+        },
+
+        /**
+         * 段落中间有没有对应开始标签的结束标签; 列表中未结束的&lt;div&gt;由&lt;/ul&gt;隐式结束
+         */
+        IMPLICIT_END {
+            @Override
+            void paragraph(StringBuilder html, String line, int index) {
+                int middle = line.length() / 2;
+                if (index % 2 == 0) {
+                    html.append("<p>").append(line, 0, middle).append("</li></td></h2></ul>")
+                            .append(line.substring(middle)).append("</p>\n");
+                } else {
+                    html.append("<ul><li><div><p>").append(line).append("</ul>\n");
+                }
+            }
+        },
+
+        /**
+         * 段落内有实体、不换行空格、&lt;br&gt;和嵌套的行内元素
+         */
+        INLINE_MARKUP {
+            @Override
+            void paragraph(StringBuilder html, String line, int index) {
+                int middle = line.length() / 2;
+                html.append("<p style=\"text-indent: 2em;\">&nbsp;&nbsp;<span><font face=\"仿宋\">")
+                        .append(line, 0, middle).append("<br/>").append(line.substring(middle))
+                        .append("</font></span>&#8203;</p>\n");
+            }
+        };
+
+        /**
+         * 生成详情页, UCAP-CONTENT之后还有带&lt;p&gt;的页脚
+         *
+         * @param paper 通知
+         * @return html
+         */
+        String page(Corpus.Paper paper) {
+            StringBuilder html = new StringBuilder(16 * 1024)
+                    .append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>通知</title></head><body>")
+                    .append("<div class=\"article\"><div class=\"pages_content\" id=\"UCAP-CONTENT\">");
+            String[] lines = paper.getText().split("\n");
+            for (int i = 0; i < lines.length; i++) {
+                paragraph(html, lines[i], i);
+            }
+            return html.append("</div></div><div class=\"footer\"><p>相关链接</p></div></body></html>").toString();
+        }
+
+        void paragraph(StringBuilder html, String line, int index) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
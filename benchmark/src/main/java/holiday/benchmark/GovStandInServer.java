@@ -0,0 +1,256 @@
+package holiday.benchmark;
+
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import holiday.HolidaySpider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 本地替身服务, 用语料模拟政策搜索接口(search-gov/data)和通知详情页
+ * <p>
+ * 搜索返回与真实接口相同的结构(code, searchVO.listVO, totalpage), 按参数n分页,
+ * 关键字中的年份及前后一年的通知都会命中, 关键字不含年份时全部命中, 由爬虫按标题过滤. 没有命中时返回code 1001.
+ * 详情页在UCAP-CONTENT前后附带导航等无关内容. 每个响应可注入固定延迟加随机抖动.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class GovStandInServer implements AutoCloseable {
+
+    private static final String SEARCH_PATH = "/search-gov/data";
+
+    private static final String PAPER_PATH = "/zhengce/content/";
+
+    private static final Pattern YEAR = Pattern.compile("(\\d{4})");
+
+    static {
+        // 响应头和body分开写出时, Nagle算法和延迟ACK会让每个请求多等约40ms
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final List<Corpus.Paper> papers;
+
+    /**
+     * 预先生成的详情页, key为语料文件名
+     */
+    private final Map<String, byte[]> pages = new HashMap<>();
+
+    private final long latencyMillis;
+
+    private final long jitterMillis;
+
+    /**
+     * 启动服务
+     *
+     * @param corpus 语料
+     * @param port 端口, 0为随机端口
+     * @param latencyMillis 每个响应的固定延迟
+     * @param jitterMillis 每个响应额外的随机延迟上限
+     * @throws IOException 无法监听端口
+     */
+    public GovStandInServer(Corpus corpus, int port, long latencyMillis, long jitterMillis) throws IOException {
+        this.papers = new ArrayList<>(corpus.getPapers());
+        // 与真实接口相同, 按发布时间倒序
+        this.papers.sort(Comparator.comparingInt(Corpus.Paper::getYear).reversed());
+        for (Corpus.Paper paper : papers) {
+            pages.put(paper.getFile(), html(paper).getBytes(StandardCharsets.UTF_8));
+        }
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "gov-stand-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext(SEARCH_PATH, this::search);
+        server.createContext(PAPER_PATH, this::paper);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * 搜索url, 设置到{@link HolidaySpider#SEARCH_URL_PROPERTY}
+     *
+     * @return url
+     */
+    public String getSearchUrl() {
+        return getBaseUrl() + SEARCH_PATH;
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void search(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int pageSize = Math.max(1, parseInt(query.get("n"), 5));
+        int pageIndex = Math.max(0, parseInt(query.get("p"), 0));
+        Matcher matcher = YEAR.matcher(query.getOrDefault("q", ""));
+        int year = matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+
+        List<Corpus.Paper> hits = new ArrayList<>();
+        for (Corpus.Paper paper : papers) {
+            if (year < 0 || Math.abs(paper.getYear() - year) <= 1) {
+                hits.add(paper);
+            }
+        }
+        JSONObject body = new JSONObject();
+        if (hits.isEmpty()) {
+            body.put("code", 1001);
+            body.put("msg", "没有找到相关结果");
+            respond(exchange, "application/json", body.toJSONString().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        JSONArray listVO = new JSONArray();
+        for (int i = pageIndex * pageSize; i < Math.min(hits.size(), (pageIndex + 1) * pageSize); i++) {
+            Corpus.Paper paper = hits.get(i);
+            JSONObject item = new JSONObject();
+            item.put("title", title(paper));
+            item.put("url", getBaseUrl() + PAPER_PATH + paper.getFile().replace(".txt", ".htm"));
+            item.put("pcode", "国办发明电");
+            item.put("puborg", "国务院办公厅");
+            listVO.add(item);
+        }
+        JSONObject searchVO = new JSONObject();
+        searchVO.put("totalpage", (hits.size() + pageSize - 1) / pageSize);
+        searchVO.put("listVO", listVO);
+        body.put("code", 200);
+        body.put("msg", "");
+        body.put("searchVO", searchVO);
+        respond(exchange, "application/json", body.toJSONString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void paper(HttpExchange exchange) throws IOException {
+        String file = exchange.getRequestURI().getPath().substring(PAPER_PATH.length()).replace(".htm", ".txt");
+        byte[] page = pages.get(file);
+        if (page != null) {
+            respond(exchange, "text/html; charset=UTF-8", page);
+            return;
+        }
+        exchange.sendResponseHeaders(404, -1);
+        exchange.close();
+    }
+
+    /**
+     * 通知标题, 即语料第一行
+     */
+    private static String title(Corpus.Paper paper) {
+        int end = paper.getText().indexOf('\n');
+        return end < 0 ? paper.getText() : paper.getText().substring(0, end);
+    }
+
+    /**
+     * 通知详情页
+     *
+     * @param paper 通知
+     * @return html
+     */
+    static String html(Corpus.Paper paper) {
+        StringBuilder html = new StringBuilder(16 * 1024);
+        html.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>")
+                .append(title(paper)).append("_国务院部门文件_中国政府网</title>")
+                .append("<script>var _hmt = _hmt || []; if (a < b) { document.write('<p>x</p>'); }</script>")
+                .append("<style>p { text-indent: 2em; }</style></head><body>");
+        // 导航等无关内容
+        html.append("<div class=\"header\"><ul>");
+        for (int i = 0; i < 200; i++) {
+            html.append("<li><a href=\"/zhengce/").append(i).append(".htm\">导航栏目").append(i).append("</a></li>");
+        }
+        html.append("</ul></div><div class=\"article\"><div class=\"pages-title\">")
+                .append(title(paper)).append("</div><div class=\"pages_content\" id=\"UCAP-CONTENT\">");
+        for (String line : paper.getText().split("\n")) {
+            html.append("<p style=\"text-indent: 2em;\">").append(line).append("</p>\n");
+        }
+        html.append("</div></div><div class=\"footer\">");
+        for (int i = 0; i < 100; i++) {
+            html.append("<p><a href=\"/link/").append(i).append("\">相关链接").append(i).append("</a>&nbsp;</p>");
+        }
+        html.append("</div></body></html>");
+        return html.toString();
+    }
+
+    private void respond(HttpExchange exchange, String contentType, byte[] bytes) throws IOException {
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (delay > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+        }
+        return query;
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 独立运行: 端口 [延迟ms] [抖动ms]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        long latency = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        long jitter = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        GovStandInServer server = new GovStandInServer(Corpus.load(), port, latency, jitter);
+        System.out.println("-D" + HolidaySpider.SEARCH_URL_PROPERTY + "=" + server.getSearchUrl());
+        Thread.currentThread().join();
+    }
+
+}
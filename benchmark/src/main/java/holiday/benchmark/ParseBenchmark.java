@@ -0,0 +1,136 @@
+package holiday.benchmark;
+
+import com.alibaba.fastjson2.JSON;
+import holiday.DescriptionParser;
+import holiday.HolidaySpider;
+import holiday.HolidayYear;
+import holiday.SentenceParser;
+import holiday.io.HolidayBinaryWriter;
+import holiday.io.HolidayJsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 解析和序列化热点路径的基准测试, 每次调用处理整个语料(2008年至今的所有通知)
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    private List<Corpus.Paper> papers;
+
+    private List<Corpus.Rule> rules;
+
+    /**
+     * 各规则按"，。；"拆分出的句子, 与DescriptionParser.parse的拆分相同
+     */
+    private List<String[]> sentences;
+
+    private List<HolidayYear> years;
+
+    /**
+     * 复用的输出, 不计入分配
+     */
+    private final ByteArrayOutputStream sink = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup
+    public void setup() {
+        Corpus corpus = Corpus.load();
+        papers = corpus.getPapers();
+        rules = corpus.getRules();
+        sentences = new ArrayList<>(rules.size());
+        for (Corpus.Rule rule : rules) {
+            sentences.add(rule.getDescription().split("[，。；]"));
+        }
+        years = corpus.getHolidayYears();
+    }
+
+    @Benchmark
+    public void getRules(Blackhole blackhole) {
+        for (Corpus.Paper paper : papers) {
+            HolidaySpider.getRules(paper.getText()).forEachRemaining(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void descriptionParserParse(Blackhole blackhole) {
+        for (Corpus.Rule rule : rules) {
+            blackhole.consume(new DescriptionParser(rule.getName(), rule.getDescription(), rule.getYear()).parse());
+        }
+    }
+
+    /**
+     * 逐句解析, 同一条规则的句子共享一个DescriptionParser, 与实际解析时的日期上下文相同
+     */
+    @Benchmark
+    public void sentenceParserParse(Blackhole blackhole) {
+        for (int i = 0; i < rules.size(); i++) {
+            Corpus.Rule rule = rules.get(i);
+            DescriptionParser parent = new DescriptionParser(rule.getName(), rule.getDescription(), rule.getYear());
+            for (String sentence : sentences.get(i)) {
+                blackhole.consume(new SentenceParser(parent, sentence).parse());
+            }
+        }
+    }
+
+    /**
+     * fetchHoliday的JSON输出
+     */
+    @Benchmark
+    public void toJsonString(Blackhole blackhole) {
+        for (HolidayYear year : years) {
+            blackhole.consume(JSON.toJSONString(year));
+        }
+    }
+
+    /**
+     * 流式JSON输出(UTF-8), 与toJsonString的结果相同
+     */
+    @Benchmark
+    public void jsonWriter(Blackhole blackhole) {
+        sink.reset();
+        HolidayJsonWriter writer = new HolidayJsonWriter(sink);
+        for (HolidayYear year : years) {
+            writer.write(year);
+        }
+        writer.flush();
+        blackhole.consume(sink.size());
+    }
+
+    /**
+     * 紧凑二进制输出
+     */
+    @Benchmark
+    public void binaryWriter(Blackhole blackhole) {
+        sink.reset();
+        HolidayBinaryWriter writer = new HolidayBinaryWriter(sink);
+        for (HolidayYear year : years) {
+            writer.write(year);
+        }
+        writer.end().flush();
+        blackhole.consume(sink.size());
+    }
+
+}
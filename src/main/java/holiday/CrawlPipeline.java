@@ -0,0 +1,205 @@
+package holiday;
+
+import holiday.io.HolidayJsonWriter;
+import holiday.metrics.CrawlMetrics;
+import holiday.metrics.Stage;
+import holiday.service.HttpService;
+import holiday.util.CommonUtil;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 分阶段并发抓取
+ * <p>
+ * 搜索、下载(边读边提取正文)、解析规则、合并四个阶段各自使用固定线程数和有界队列.
+ * 下游队列满时提交任务的上游线程会阻塞, 形成背压; 按host的限速由httpService负责({@link holiday.service.HttpConfig#getRequestsPerSecondPerHost()}).
+ * 多年份抓取的耗时接近最慢的阶段, 而不是所有请求延迟之和.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class CrawlPipeline implements AutoCloseable {
+
+    private final HttpService httpService;
+
+    private final ThreadPoolExecutor searchStage;
+
+    private final ThreadPoolExecutor downloadStage;
+
+    private final ThreadPoolExecutor parseStage;
+
+    private final ThreadPoolExecutor mergeStage;
+
+    public CrawlPipeline() {
+        this(Options.builder().build());
+    }
+
+    public CrawlPipeline(Options options) {
+        this.httpService = options.getHttpService() != null
+                ? options.getHttpService()
+                : HolidaySpider.defaultHttpService();
+        int capacity = options.getQueueCapacity();
+        this.searchStage = newStage("search", options.getSearchThreads(), capacity);
+        this.downloadStage = newStage("download", options.getDownloadThreads(), capacity);
+        this.parseStage = newStage("parse", options.getParseThreads(), capacity);
+        this.mergeStage = newStage("merge", options.getMergeThreads(), capacity);
+    }
+
+    /**
+     * 提交一年的抓取
+     *
+     * @param year 年份
+     * @return 假期安排
+     */
+    public CompletableFuture<HolidayYear> submit(int year) {
+        return CompletableFuture
+                .supplyAsync(() -> HolidaySpider.getPaperUrls(year, httpService), searchStage)
+                .thenCompose(urls -> {
+                    List<CompletableFuture<List<HolidayDay>>> papers = urls.stream()
+                            .map(url -> submitPaper(year, url))
+                            .collect(Collectors.toList());
+                    return CompletableFuture.allOf(papers.toArray(new CompletableFuture<?>[0]))
+                            .thenApplyAsync(ignored -> merge(year, urls, papers), mergeStage);
+                });
+    }
+
+    /**
+     * 抓取多年的假期安排
+     *
+     * @param years 年份
+     * @return 假期安排, 与years顺序相同
+     */
+    public List<HolidayYear> fetchAll(Collection<Integer> years) {
+        List<CompletableFuture<HolidayYear>> futures = years.stream()
+                .map(this::submit)
+                .collect(Collectors.toList());
+        List<HolidayYear> result = new ArrayList<>(futures.size());
+        for (CompletableFuture<HolidayYear> future : futures) {
+            result.add(CommonUtil.join(future));
+        }
+        return result;
+    }
+
+    /**
+     * 抓取多年的假期安排并按顺序写出为JSON数组, 每年完成后立即写出
+     *
+     * @param years 年份
+     * @param writer 输出
+     */
+    public void writeAll(Collection<Integer> years, HolidayJsonWriter writer) {
+        List<CompletableFuture<HolidayYear>> futures = years.stream()
+                .map(this::submit)
+                .collect(Collectors.toList());
+        writer.beginArray();
+        for (CompletableFuture<HolidayYear> future : futures) {
+            HolidayYear year = CommonUtil.join(future);
+            long start = CrawlMetrics.start();
+            writer.write(year);
+            writer.flush();
+            CrawlMetrics.record(Stage.JSON, start);
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
+    /**
+     * 下载并提取、解析一个政策文件
+     */
+    private CompletableFuture<List<HolidayDay>> submitPaper(int year, String url) {
+        List<HolidayDay> preParsed = HolidaySpider.getPreParsedPaper(url);
+        if (preParsed != null) {
+            return CompletableFuture.completedFuture(preParsed);
+        }
+        return CompletableFuture
+                .supplyAsync(() -> HolidaySpider.downloadPaper(url, httpService), downloadStage)
+                .thenApplyAsync(lines -> HolidaySpider.parsePaper(year, lines), parseStage);
+    }
+
+    /**
+     * 按政策文件顺序合并
+     */
+    private static HolidayYear merge(int year, List<String> urls, List<CompletableFuture<List<HolidayDay>>> papers) {
+        List<HolidayDay> days = new ArrayList<>();
+        for (CompletableFuture<List<HolidayDay>> paper : papers) {
+            days.addAll(paper.join());
+        }
+        return new HolidayYear(year, urls, days);
+    }
+
+    @Override
+    public void close() {
+        for (ThreadPoolExecutor stage : new ThreadPoolExecutor[]{
+                searchStage, downloadStage, parseStage, mergeStage}) {
+            stage.shutdownNow();
+        }
+    }
+
+    /**
+     * 创建阶段线程池, 队列满时阻塞提交者
+     */
+    private static ThreadPoolExecutor newStage(String name, int threads, int queueCapacity) {
+        AtomicInteger index = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "holiday-" + name + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, (runnable, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("阶段已关闭: " + name);
+            }
+            try {
+                executor.getQueue().put(runnable);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("提交到阶段时被中断: " + name, e);
+            }
+        });
+    }
+
+    /**
+     * 抓取配置
+     */
+    @Value
+    @Builder
+    public static class Options {
+
+        /**
+         * 访问网络的HttpService, 默认为{@link HolidaySpider#defaultHttpService()}
+         */
+        HttpService httpService;
+
+        @Builder.Default
+        int searchThreads = 2;
+
+        @Builder.Default
+        int downloadThreads = 4;
+
+        @Builder.Default
+        int parseThreads = Runtime.getRuntime().availableProcessors();
+
+        @Builder.Default
+        int mergeThreads = 1;
+
+        /**
+         * 每个阶段的队列长度
+         */
+        @Builder.Default
+        int queueCapacity = 64;
+    }
+
+}
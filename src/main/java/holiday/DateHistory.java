@@ -0,0 +1,137 @@
+package holiday;
+
+import java.util.Arrays;
+
+/**
+ * 描述中已解析出的日期(epoch-day), 按解析顺序保存
+ * <p>
+ * 同时维护最大值和开放寻址的哈希集合, 取最大值和判断是否包含都不需要遍历.
+ * 实例不是线程安全的, 可以{@link #clear()}后复用.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class DateHistory {
+
+    /**
+     * 哈希表中的空位, 不是有效的日期
+     */
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] days = new int[16];
+
+    private int size;
+
+    private int max = Integer.MIN_VALUE;
+
+    /**
+     * 开放寻址的哈希表, 长度为2的幂且至少是size的2倍
+     */
+    private int[] table = newTable(32);
+
+    /**
+     * 是否为空
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 最后加入的日期
+     *
+     * @return epoch-day
+     */
+    public int last() {
+        if (size == 0) {
+            throw new IndexOutOfBoundsException("没有已解析的日期");
+        }
+        return days[size - 1];
+    }
+
+    /**
+     * 最大的日期
+     *
+     * @return epoch-day, 为空时为Integer.MIN_VALUE
+     */
+    public int max() {
+        return max;
+    }
+
+    /**
+     * 是否包含日期
+     *
+     * @param day epoch-day
+     * @return 是否包含
+     */
+    public boolean contains(int day) {
+        int mask = table.length - 1;
+        for (int i = hash(day) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == day) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 加入日期
+     *
+     * @param day epoch-day
+     */
+    public void add(int day) {
+        if (size == days.length) {
+            days = Arrays.copyOf(days, size << 1);
+        }
+        days[size++] = day;
+        max = Math.max(max, day);
+        if (size << 1 > table.length) {
+            rehash(table.length << 1);
+        } else {
+            insert(table, day);
+        }
+    }
+
+    /**
+     * 清空, 保留已分配的空间
+     */
+    public void clear() {
+        size = 0;
+        max = Integer.MIN_VALUE;
+        Arrays.fill(table, EMPTY);
+    }
+
+    private void rehash(int capacity) {
+        int[] newTable = newTable(capacity);
+        for (int i = 0; i < size; i++) {
+            insert(newTable, days[i]);
+        }
+        table = newTable;
+    }
+
+    private static void insert(int[] table, int day) {
+        int mask = table.length - 1;
+        int i = hash(day) & mask;
+        while (table[i] != EMPTY) {
+            if (table[i] == day) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = day;
+    }
+
+    private static int hash(int day) {
+        int h = day * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+}
@@ -0,0 +1,357 @@
+package holiday;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 日期表达式词法分析
+ * <p>
+ * 逐字符扫描一遍句子, 识别单个日期、范围(至/-/—)和列表(、), 以epoch-day输出.
+ * 结果与原先的三个正则提取方法一致:
+ * <ol>
+ *     <li>单个日期: {@code (?:(\d+)年)?(?:(\d+)月)?(\d+)日}, 作用于原文</li>
+ *     <li>日期范围: 两个日期以[至-—]相连, 作用于去掉（...）后的文本</li>
+ *     <li>日期列表: 多个日期以、相连, 只取首尾两个, 作用于去掉（...）后的文本</li>
+ * </ol>
+ * 扫描时原文和去括号文本各用一个状态机, 同一次遍历中同时推进.
+ * 实例不是线程安全的, 由{@link DescriptionParser}持有并复用.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+class DateLexer {
+
+    private static final int CONNECTOR_NONE = 0;
+
+    private static final int CONNECTOR_RANGE = 1;
+
+    private static final int CONNECTOR_LIST = 2;
+
+    /**
+     * 原文中的日期
+     */
+    private final TokenScanner raw = new TokenScanner();
+
+    /**
+     * 去掉（...）后的日期
+     */
+    private final TokenScanner stripped = new TokenScanner();
+
+    private int[] dates = new int[16];
+
+    private int dateCount;
+
+    /**
+     * 提取日期
+     *
+     * @param parent 描述解析器, 提供年份推断和日期历史
+     * @param text 文本
+     * @param from 起始位置(含)
+     * @param to 结束位置(不含)
+     * @param consumer 日期(epoch-day)消费者, 按原先的输出顺序且去重
+     */
+    void extract(DescriptionParser parent, CharSequence text, int from, int to, IntConsumer consumer) {
+        scan(text, from, to);
+        dateCount = 0;
+        DateHistory history = parent.getDateHistory();
+
+        // 单个日期
+        for (int i = 0; i < raw.count; i++) {
+            int date = raw.resolve(parent, i);
+            if (!history.contains(date)) {
+                history.add(date);
+                addDate(date);
+            }
+        }
+
+        // 日期范围
+        int count = stripped.count;
+        for (int i = 0; i + 1 < count; ) {
+            if (!stripped.linked(i, CONNECTOR_RANGE)) {
+                i++;
+                continue;
+            }
+            int start = stripped.resolve(parent, i);
+            int end = stripped.resolve(parent, i + 1);
+            addDate(start);
+            while (start < end) {
+                if (!history.contains(++start)) {
+                    history.add(start);
+                    addDate(start);
+                }
+            }
+            i += 2;
+        }
+
+        // 日期列表
+        for (int i = 0; i + 1 < count; ) {
+            if (!stripped.linked(i, CONNECTOR_LIST)) {
+                i++;
+                continue;
+            }
+            int last = i + 1;
+            while (last + 1 < count && stripped.linked(last, CONNECTOR_LIST)) {
+                last++;
+            }
+            // 与原正则的分组一致, 只取首尾两个日期
+            addListDate(history, stripped.resolve(parent, i));
+            addListDate(history, stripped.resolveListLast(parent, i + 1, last));
+            i = last + 1;
+        }
+
+        for (int i = 0; i < dateCount; i++) {
+            consumer.accept(dates[i]);
+        }
+    }
+
+    /**
+     * 扫描文本, 同时生成原文和去括号文本中的日期
+     */
+    private void scan(CharSequence text, int from, int to) {
+        raw.reset();
+        stripped.reset();
+        // 去括号文本中的位置
+        int position = 0;
+        // 被去掉的（...）的结束位置(不含)
+        int skipTo = from;
+        // 此位置之后没有可闭合的右括号
+        int unclosedFrom = Integer.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            raw.feed(c, i);
+            if (i < skipTo) {
+                continue;
+            }
+            if (isOpen(c) && i < unclosedFrom) {
+                // 与（.+?）相同: 括号内至少一个字符, 取最近的右括号
+                int close = i + 2;
+                while (close < to && !isClose(text.charAt(close))) {
+                    close++;
+                }
+                if (close < to) {
+                    skipTo = close + 1;
+                    continue;
+                }
+                unclosedFrom = i;
+            }
+            stripped.feed(c, position++);
+        }
+    }
+
+    private void addListDate(DateHistory history, int date) {
+        if (!history.contains(date)) {
+            addDate(date);
+            history.add(date);
+        }
+    }
+
+    private void addDate(int date) {
+        for (int i = 0; i < dateCount; i++) {
+            if (dates[i] == date) {
+                return;
+            }
+        }
+        if (dateCount == dates.length) {
+            dates = Arrays.copyOf(dates, dateCount << 1);
+        }
+        dates[dateCount++] = date;
+    }
+
+    private static boolean isOpen(char c) {
+        return c == '（' || c == '(';
+    }
+
+    private static boolean isClose(char c) {
+        return c == '）' || c == ')';
+    }
+
+    private static int connectorOf(char c) {
+        switch (c) {
+            case '至':
+            case '-':
+            case '—':
+                return CONNECTOR_RANGE;
+            case '、':
+                return CONNECTOR_LIST;
+            default:
+                return CONNECTOR_NONE;
+        }
+    }
+
+    /**
+     * 日期状态机, 识别{@code (?:(\d+)年)?(?:(\d+)月)?(\d+)日}
+     */
+    private static class TokenScanner {
+
+        private static final int YEAR = 0;
+        private static final int MONTH = 1;
+        private static final int DAY = 2;
+        private static final int START = 3;
+        private static final int END = 4;
+        private static final int CONNECTOR = 5;
+        private static final int PARTS = 6;
+        private static final int WIDTH = 7;
+
+        private static final int YEAR_PART = 1;
+        private static final int MONTH_PART = 2;
+
+        /**
+         * 不在日期中
+         */
+        private static final int IDLE = 0;
+
+        /**
+         * 读取数字中
+         */
+        private static final int DIGITS = 1;
+
+        /**
+         * 年或月之后, 需要数字
+         */
+        private static final int NEED_DIGITS = 2;
+
+        private int[] tokens = new int[WIDTH * 8];
+
+        private int count;
+
+        private int state;
+
+        /**
+         * 已读到的部分: YEAR_PART | MONTH_PART
+         */
+        private int parts;
+
+        private int year;
+
+        private int month;
+
+        /**
+         * 当前数字, 溢出时为-1
+         */
+        private int value;
+
+        private int tokenStart;
+
+        private int digitsStart;
+
+        void reset() {
+            count = 0;
+            state = IDLE;
+        }
+
+        void feed(char c, int position) {
+            if (count > 0 && tokens[(count - 1) * WIDTH + END] == position) {
+                tokens[(count - 1) * WIDTH + CONNECTOR] = connectorOf(c);
+            }
+            if (c >= '0' && c <= '9') {
+                int digit = c - '0';
+                if (state == DIGITS) {
+                    value = value < 0 || value > (Integer.MAX_VALUE - digit) / 10 ? -1 : value * 10 + digit;
+                    return;
+                }
+                if (state == IDLE) {
+                    parts = 0;
+                    year = 0;
+                    month = 0;
+                    tokenStart = position;
+                }
+                digitsStart = position;
+                value = digit;
+                state = DIGITS;
+                return;
+            }
+            if (state != DIGITS) {
+                state = IDLE;
+                return;
+            }
+            switch (c) {
+                case '年':
+                    if (parts != 0) {
+                        // 从当前数字重新开始匹配
+                        tokenStart = digitsStart;
+                        month = 0;
+                    }
+                    year = value;
+                    parts = YEAR_PART;
+                    state = NEED_DIGITS;
+                    break;
+                case '月':
+                    if ((parts & MONTH_PART) != 0) {
+                        tokenStart = digitsStart;
+                        year = 0;
+                        parts = 0;
+                    }
+                    month = value;
+                    parts |= MONTH_PART;
+                    state = NEED_DIGITS;
+                    break;
+                case '日':
+                    add(position + 1);
+                    state = IDLE;
+                    break;
+                default:
+                    state = IDLE;
+            }
+        }
+
+        private void add(int end) {
+            int offset = count * WIDTH;
+            if (offset == tokens.length) {
+                tokens = Arrays.copyOf(tokens, offset << 1);
+            }
+            tokens[offset + YEAR] = year;
+            tokens[offset + MONTH] = month;
+            tokens[offset + DAY] = value;
+            tokens[offset + START] = tokenStart;
+            tokens[offset + END] = end;
+            tokens[offset + CONNECTOR] = CONNECTOR_NONE;
+            tokens[offset + PARTS] = parts;
+            count++;
+        }
+
+        /**
+         * 第index个日期与下一个日期是否以指定连接符紧邻
+         */
+        boolean linked(int index, int connector) {
+            int offset = index * WIDTH;
+            return tokens[offset + CONNECTOR] == connector
+                    && tokens[offset + WIDTH + START] == tokens[offset + END] + 1;
+        }
+
+        int resolve(DescriptionParser parent, int index) {
+            int offset = index * WIDTH;
+            return resolve(parent, tokens[offset + YEAR], tokens[offset + MONTH], tokens[offset + DAY]);
+        }
+
+        /**
+         * 解析列表中的最后一个日期
+         * <p>
+         * 原正则中后续日期在重复分组内, 未出现的年、月分组保留前面日期的值
+         *
+         * @param first 列表中第二个日期
+         * @param last 列表中最后一个日期
+         */
+        int resolveListLast(DescriptionParser parent, int first, int last) {
+            int y = 0;
+            int m = 0;
+            for (int offset = first * WIDTH; offset <= last * WIDTH; offset += WIDTH) {
+                if ((tokens[offset + PARTS] & YEAR_PART) != 0) {
+                    y = tokens[offset + YEAR];
+                }
+                if ((tokens[offset + PARTS] & MONTH_PART) != 0) {
+                    m = tokens[offset + MONTH];
+                }
+            }
+            return resolve(parent, y, m, tokens[last * WIDTH + DAY]);
+        }
+
+        private int resolve(DescriptionParser parent, int y, int m, int d) {
+            if (y < 0 || m < 0 || d < 0) {
+                throw new NumberFormatException("日期数字超出范围");
+            }
+            return parent.getDate(y, m, d);
+        }
+    }
+
+}
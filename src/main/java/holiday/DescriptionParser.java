@@ -1,13 +1,24 @@
 package holiday;
 
+import holiday.metrics.Counter;
+import holiday.metrics.CrawlMetrics;
+import holiday.metrics.Stage;
+import holiday.rule.RestRuleRegistry;
+import holiday.util.DateUtil;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
-import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.IntConsumer;
 
 /**
  * 描述解析
+ * <p>
+ * 实例保存解析过程中的日期历史, 不是线程安全的; 多线程解析使用{@link HolidayParseEngine}.
  * 2023/6/29
  *
  * @author Href
@@ -22,7 +33,18 @@ public class DescriptionParser {
 
     private int year;
 
-    protected List<LocalDate> dateHistory;
+    protected DateHistory dateHistory;
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final DateLexer dateLexer = new DateLexer();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private RestRuleRegistry registry = RestRuleRegistry.getDefault();
 
     /**
      * 构造函数
@@ -34,7 +56,32 @@ public class DescriptionParser {
         this.name = name;
         this.description = description;
         this.year = year;
-        this.dateHistory = new ArrayList<>();
+        this.dateHistory = new DateHistory();
+    }
+
+    /**
+     * 复用实例解析另一条描述, 清空日期历史
+     *
+     * @param name 节日名称
+     * @param description 假期安排描述
+     * @param year 年份
+     * @param registry 规则注册表
+     * @return this
+     */
+    DescriptionParser reset(String name, String description, int year, RestRuleRegistry registry) {
+        this.name = name;
+        this.description = description;
+        this.year = year;
+        this.registry = registry;
+        this.dateHistory.clear();
+        return this;
+    }
+
+    /**
+     * 句子使用的规则注册表
+     */
+    RestRuleRegistry registry() {
+        return registry;
     }
 
     /**
@@ -42,40 +89,62 @@ public class DescriptionParser {
      *
      * @return 节日安排days
      */
-    public List<Map<String, Object>> parse() {
-        return Arrays.stream(description.split("[，。；]"))
-                .map(sentence -> new SentenceParser(this, sentence).parse())
-                .flatMap(List::stream)
-                .collect(Collectors.toList());
+    public List<HolidayDay> parse() {
+        long start = CrawlMetrics.start();
+        String[] sentences = description.split("[，。；]");
+        List<HolidayDay> days = new ArrayList<>();
+        int emptySentences = 0;
+        for (String sentence : sentences) {
+            List<HolidayDay> sentenceDays = new SentenceParser(this, sentence).parse();
+            if (sentenceDays.isEmpty()) {
+                emptySentences++;
+            }
+            days.addAll(sentenceDays);
+        }
+        if (start != 0) {
+            CrawlMetrics.record(Stage.DESCRIPTION_PARSE, start);
+            CrawlMetrics.increment(Counter.SENTENCES, sentences.length);
+            CrawlMetrics.increment(Counter.EMPTY_SENTENCES, emptySentences);
+        }
+        return days;
+    }
+
+    /**
+     * 提取文本中的日期
+     *
+     * @param text 文本
+     * @param from 起始位置(含)
+     * @param to 结束位置(不含)
+     * @param consumer 日期(epoch-day)消费者
+     */
+    public void extractDates(CharSequence text, int from, int to, IntConsumer consumer) {
+        dateLexer.extract(this, text, from, to, consumer);
     }
 
     /**
      * 格式化日期
      *
-     * @param yearStr 年份
-     * @param monthStr 月份
-     * @param dayStr 日
-     * @return 格式化后日期
+     * @param year 年份, 0表示未指定
+     * @param month 月份, 0表示未指定
+     * @param day 日
+     * @return 格式化后日期(epoch-day)
      */
-    public LocalDate getDate(String yearStr, String monthStr, String dayStr) {
-        int year = Optional.ofNullable(yearStr).map(Integer::parseInt).orElse(0);
-        int month = Optional.ofNullable(monthStr).map(Integer::parseInt).orElse(0);
-        int day = Optional.ofNullable(dayStr).map(Integer::parseInt).orElse(0);
+    public int getDate(int year, int month, int day) {
         assert day != 0: "没有指定的日";
         if (month == 0) {
-            month = dateHistory.get(dateHistory.size() -1).getMonthValue();
+            month = DateUtil.monthOf(dateHistory.last());
         }
         if (
                 year == 0
                 && month == 12
                 && !this.dateHistory.isEmpty()
-                && LocalDate.of(this.year, 2, 1).isAfter(dateHistory.stream().max(LocalDate::compareTo).get())
+                && DateUtil.toEpochDay(this.year, 2, 1) > dateHistory.max()
         ) {
             year = this.year -1;
         }
         if (year == 0) {
             year = this.year;
         }
-        return LocalDate.of(year, month, day);
+        return DateUtil.toEpochDay(year, month, day);
     }
 }
@@ -0,0 +1,317 @@
+package holiday;
+
+import holiday.util.DateUtil;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 假期日历
+ * <p>
+ * 覆盖的年份内, 每年按天保存三个位图: 休息日、节假日、调休上班日.
+ * 休息日位图在构建时由周末和假期安排合成, 查询只需一次位运算, 不创建对象.
+ * 覆盖范围以外的日期按周末休息处理.
+ * 实例不可变, 可以在多个线程间共享.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public final class HolidayCalendar {
+
+    /**
+     * 每年的位图长度(long), 366天
+     */
+    private static final int WORDS_PER_YEAR = 6;
+
+    private final int firstYear;
+
+    private final int lastYear;
+
+    /**
+     * 每年1月1日的epoch-day, 多一项为lastYear的下一年
+     */
+    private final int[] yearStarts;
+
+    /**
+     * 休息日
+     */
+    private final long[] offDays;
+
+    /**
+     * 节假日(放假)
+     */
+    private final long[] holidays;
+
+    /**
+     * 调休上班日
+     */
+    private final long[] adjustedWorkdays;
+
+    private HolidayCalendar(int firstYear, int lastYear, long[] holidays, long[] adjustedWorkdays) {
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.holidays = holidays;
+        this.adjustedWorkdays = adjustedWorkdays;
+        this.yearStarts = new int[lastYear - firstYear + 2];
+        for (int year = firstYear; year <= lastYear + 1; year++) {
+            yearStarts[year - firstYear] = DateUtil.toEpochDay(year, 1, 1);
+        }
+        this.offDays = new long[holidays.length];
+        for (int year = firstYear; year <= lastYear; year++) {
+            int start = yearStarts[year - firstYear];
+            int end = yearStarts[year - firstYear + 1];
+            int base = (year - firstYear) * WORDS_PER_YEAR * 64;
+            for (int day = start; day < end; day++) {
+                int bit = base + day - start;
+                if (get(holidays, bit) || (DateUtil.isWeekend(day) && !get(adjustedWorkdays, bit))) {
+                    offDays[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * 由假期安排创建日历
+     *
+     * @param years 假期安排
+     * @return 日历
+     */
+    public static HolidayCalendar of(Iterable<HolidayYear> years) {
+        Builder builder = new Builder();
+        years.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * 由假期安排创建日历
+     *
+     * @param years 假期安排
+     * @return 日历
+     */
+    public static HolidayCalendar of(HolidayYear... years) {
+        return of(Arrays.asList(years));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 覆盖的第一年, 没有任何数据时为0
+     */
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    /**
+     * 覆盖的最后一年, 没有任何数据时为-1
+     */
+    public int getLastYear() {
+        return lastYear;
+    }
+
+    /**
+     * 是否为休息日
+     *
+     * @param epochDay epoch-day
+     * @return 是否为休息日
+     */
+    public boolean isOffDay(int epochDay) {
+        int bit = bitOf(epochDay);
+        return bit < 0 ? DateUtil.isWeekend(epochDay) : get(offDays, bit);
+    }
+
+    public boolean isOffDay(LocalDate date) {
+        return isOffDay((int) date.toEpochDay());
+    }
+
+    /**
+     * 是否为工作日
+     *
+     * @param epochDay epoch-day
+     * @return 是否为工作日
+     */
+    public boolean isWorkday(int epochDay) {
+        return !isOffDay(epochDay);
+    }
+
+    public boolean isWorkday(LocalDate date) {
+        return !isOffDay(date);
+    }
+
+    /**
+     * 是否为放假的节假日(不含普通周末)
+     *
+     * @param epochDay epoch-day
+     * @return 是否为节假日
+     */
+    public boolean isHoliday(int epochDay) {
+        int bit = bitOf(epochDay);
+        return bit >= 0 && get(holidays, bit);
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        return isHoliday((int) date.toEpochDay());
+    }
+
+    /**
+     * 是否为调休上班的周末
+     *
+     * @param epochDay epoch-day
+     * @return 是否为调休上班日
+     */
+    public boolean isAdjustedWorkday(int epochDay) {
+        int bit = bitOf(epochDay);
+        return bit >= 0 && get(adjustedWorkdays, bit);
+    }
+
+    public boolean isAdjustedWorkday(LocalDate date) {
+        return isAdjustedWorkday((int) date.toEpochDay());
+    }
+
+    /**
+     * 之后的第一个工作日(不含当天)
+     * <p>
+     * 步数不超过最长的连续休息天数
+     *
+     * @param epochDay epoch-day
+     * @return 工作日epoch-day
+     */
+    public int nextWorkday(int epochDay) {
+        int day = epochDay + 1;
+        while (isOffDay(day)) {
+            day++;
+        }
+        return day;
+    }
+
+    public LocalDate nextWorkday(LocalDate date) {
+        return LocalDate.ofEpochDay(nextWorkday((int) date.toEpochDay()));
+    }
+
+    /**
+     * 之前的最后一个工作日(不含当天)
+     *
+     * @param epochDay epoch-day
+     * @return 工作日epoch-day
+     */
+    public int previousWorkday(int epochDay) {
+        int day = epochDay - 1;
+        while (isOffDay(day)) {
+            day--;
+        }
+        return day;
+    }
+
+    public LocalDate previousWorkday(LocalDate date) {
+        return LocalDate.ofEpochDay(previousWorkday((int) date.toEpochDay()));
+    }
+
+    /**
+     * 日期在位图中的位置, 不在覆盖范围内时为-1
+     */
+    private int bitOf(int epochDay) {
+        if (lastYear < firstYear || epochDay < yearStarts[0] || epochDay >= yearStarts[yearStarts.length - 1]) {
+            return -1;
+        }
+        // 按366天估算年份, 只会偏小
+        int index = (epochDay - yearStarts[0]) / 366;
+        while (epochDay >= yearStarts[index + 1]) {
+            index++;
+        }
+        return index * WORDS_PER_YEAR * 64 + epochDay - yearStarts[index];
+    }
+
+    private static boolean get(long[] bits, int bit) {
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * 日历构建器, 后加入的安排覆盖先加入的
+     */
+    public static class Builder {
+
+        private int firstYear = Integer.MAX_VALUE;
+
+        private int lastYear = Integer.MIN_VALUE;
+
+        private int[] days = new int[64];
+
+        private boolean[] offDays = new boolean[64];
+
+        private int count;
+
+        private Builder() {
+        }
+
+        /**
+         * 加入一年的假期安排, 该年即使没有安排也会被覆盖
+         *
+         * @param year 假期安排
+         * @return this
+         */
+        public Builder add(HolidayYear year) {
+            addYear(year.getYear());
+            year.getDays().forEach(this::add);
+            return this;
+        }
+
+        /**
+         * 加入一天
+         *
+         * @param day 假期安排中的一天
+         * @return this
+         */
+        public Builder add(HolidayDay day) {
+            addYear(DateUtil.yearOf(day.getEpochDay()));
+            if (count == days.length) {
+                days = Arrays.copyOf(days, count << 1);
+                offDays = Arrays.copyOf(offDays, count << 1);
+            }
+            days[count] = day.getEpochDay();
+            offDays[count] = day.isOffDay();
+            count++;
+            return this;
+        }
+
+        /**
+         * 覆盖一年, 没有安排的日期按周末休息处理
+         *
+         * @param year 年份
+         * @return this
+         */
+        public Builder addYear(int year) {
+            firstYear = Math.min(firstYear, year);
+            lastYear = Math.max(lastYear, year);
+            return this;
+        }
+
+        public HolidayCalendar build() {
+            if (firstYear > lastYear) {
+                return new HolidayCalendar(0, -1, new long[0], new long[0]);
+            }
+            int words = (lastYear - firstYear + 1) * WORDS_PER_YEAR;
+            long[] holidays = new long[words];
+            long[] adjustedWorkdays = new long[words];
+            int[] yearStarts = new int[lastYear - firstYear + 1];
+            for (int year = firstYear; year <= lastYear; year++) {
+                yearStarts[year - firstYear] = DateUtil.toEpochDay(year, 1, 1);
+            }
+            for (int i = 0; i < count; i++) {
+                int yearIndex = DateUtil.yearOf(days[i]) - firstYear;
+                int bit = yearIndex * WORDS_PER_YEAR * 64 + days[i] - yearStarts[yearIndex];
+                long mask = 1L << bit;
+                if (offDays[i]) {
+                    holidays[bit >>> 6] |= mask;
+                    adjustedWorkdays[bit >>> 6] &= ~mask;
+                } else {
+                    adjustedWorkdays[bit >>> 6] |= mask;
+                    holidays[bit >>> 6] &= ~mask;
+                }
+            }
+            return new HolidayCalendar(firstYear, lastYear, holidays, adjustedWorkdays);
+        }
+    }
+
+}
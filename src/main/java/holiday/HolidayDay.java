@@ -0,0 +1,102 @@
+package holiday;
+
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.annotation.JSONType;
+import com.alibaba.fastjson2.writer.ObjectWriter;
+import holiday.util.DateUtil;
+import lombok.EqualsAndHashCode;
+
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+
+/**
+ * 假期安排中的一天
+ * <p>
+ * 名称以{@link HolidayNames}中的id保存, 日期以epoch-day保存.
+ * JSON输出与原先的dayMap相同: {@code {"date":"yyyy-MM-dd","isOffDay":true,"name":"string"}}
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@EqualsAndHashCode
+@JSONType(serializer = HolidayDay.JsonWriter.class)
+public final class HolidayDay {
+
+    private final int nameId;
+
+    private final int epochDay;
+
+    private final boolean offDay;
+
+    private HolidayDay(int nameId, int epochDay, boolean offDay) {
+        this.nameId = nameId;
+        this.epochDay = epochDay;
+        this.offDay = offDay;
+    }
+
+    public static HolidayDay of(int nameId, int epochDay, boolean offDay) {
+        return new HolidayDay(nameId, epochDay, offDay);
+    }
+
+    public static HolidayDay of(String name, int epochDay, boolean offDay) {
+        return new HolidayDay(HolidayNames.idOf(name), epochDay, offDay);
+    }
+
+    public static HolidayDay of(String name, LocalDate date, boolean offDay) {
+        return of(name, (int) date.toEpochDay(), offDay);
+    }
+
+    public int getNameId() {
+        return nameId;
+    }
+
+    public String getName() {
+        return HolidayNames.nameOf(nameId);
+    }
+
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    public LocalDate getDate() {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    public boolean isOffDay() {
+        return offDay;
+    }
+
+    @Override
+    public String toString() {
+        return "HolidayDay(name=" + getName() + ", date=" + getDate() + ", isOffDay=" + offDay + ")";
+    }
+
+    /**
+     * 按原dayMap的字段顺序输出, 不创建中间对象
+     */
+    public static class JsonWriter implements ObjectWriter<HolidayDay> {
+
+        @Override
+        public void write(JSONWriter jsonWriter, Object object, Object fieldName, Type fieldType, long features) {
+            if (object == null) {
+                jsonWriter.writeNull();
+                return;
+            }
+            HolidayDay day = (HolidayDay) object;
+            jsonWriter.startObject();
+            jsonWriter.writeName("date");
+            jsonWriter.writeColon();
+            jsonWriter.writeDateYYYMMDD10(
+                    DateUtil.yearOf(day.epochDay), DateUtil.monthOf(day.epochDay), DateUtil.dayOfMonthOf(day.epochDay));
+            jsonWriter.writeName("isOffDay");
+            jsonWriter.writeColon();
+            jsonWriter.writeBool(day.offDay);
+            jsonWriter.writeName("name");
+            jsonWriter.writeColon();
+            jsonWriter.writeString(day.getName());
+            jsonWriter.endObject();
+        }
+    }
+
+}
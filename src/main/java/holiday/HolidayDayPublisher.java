@@ -0,0 +1,619 @@
+package holiday;
+
+import holiday.service.HttpService;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 按政策文件流式发布假期安排
+ * <p>
+ * 每个政策文件解析完成后立即发布其中的日期, 不等待一年的全部文件.
+ * 语义与Reactive Streams相同(目标为Java 8, 所以不使用{@code java.util.concurrent.Flow}):
+ * 订阅者通过{@link Subscription#request(long)}声明需求, 只在有需求时收到日期, 各信号串行发出;
+ * 已开始但日期未全部交付的政策文件达到上限时不再开始下载新的文件, 背压一直传到网络.
+ * {@link Subscription#cancel()}后不再发出信号, 也不再开始新的下载.
+ * <p>
+ * 默认按政策文件顺序发布, 与{@link HolidaySpider#fetchHoliday(int)}的日期顺序相同(后面的文件覆盖前面的);
+ * 也可以按解析完成的顺序发布. 每次订阅都重新搜索, 多个年份共用一次搜索, 同一url只下载一次.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class HolidayDayPublisher {
+
+    private final List<Integer> years;
+
+    private final Options options;
+
+    public HolidayDayPublisher(Collection<Integer> years) {
+        this(years, Options.builder().build());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param years 年份, 按此顺序发布, 重复的年份只发布一次
+     * @param options 配置
+     */
+    public HolidayDayPublisher(Collection<Integer> years, Options options) {
+        if (options.getMaxPendingPapers() < 1) {
+            throw new IllegalArgumentException("maxPendingPapers必须大于0: " + options.getMaxPendingPapers());
+        }
+        this.years = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(years)));
+        this.options = options;
+    }
+
+    /**
+     * 订阅, 先调用{@link Subscriber#onSubscribe(Subscription)}, 然后开始搜索
+     *
+     * @param subscriber 订阅者
+     */
+    public void subscribe(Subscriber subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        HttpService httpService = options.getHttpService() != null
+                ? options.getHttpService()
+                : HolidaySpider.defaultHttpService();
+        PaperSubscription subscription = new PaperSubscription(subscriber, httpService);
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+    }
+
+    /**
+     * 以阻塞的Stream消费
+     *
+     * @return 日期, 关闭Stream时取消订阅
+     * @see #stream(Consumer)
+     */
+    public Stream<HolidayDay> stream() {
+        return stream(event -> {
+        });
+    }
+
+    /**
+     * 以阻塞的Stream消费
+     * <p>
+     * 最多缓冲{@link Options#getBufferSize()}个日期, 消费一半后再请求. 失败时在读取处抛出原始异常.
+     *
+     * @param progress 政策文件进度, 在发布线程上调用
+     * @return 日期, 关闭Stream时取消订阅
+     */
+    public Stream<HolidayDay> stream(Consumer<PaperEvent> progress) {
+        BlockingSubscriber subscriber = new BlockingSubscriber(options.getBufferSize(), progress);
+        subscribe(subscriber);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(subscriber,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(subscriber::cancel);
+    }
+
+    /**
+     * 订阅者, 各方法不会并发调用
+     */
+    public interface Subscriber {
+
+        /**
+         * 订阅开始, 在其他信号之前调用
+         *
+         * @param subscription 订阅
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * 一个日期, 总数不超过已请求的数量
+         *
+         * @param day 日期
+         */
+        void onNext(HolidayDay day);
+
+        /**
+         * 政策文件进度, 不占用请求数量
+         *
+         * @param event 进度
+         */
+        default void onPaper(PaperEvent event) {
+        }
+
+        /**
+         * 失败, 之后不再有信号
+         *
+         * @param error 原始异常
+         */
+        void onError(Throwable error);
+
+        /**
+         * 所有日期已发布, 之后不再有信号
+         */
+        void onComplete();
+    }
+
+    /**
+     * 订阅
+     */
+    public interface Subscription {
+
+        /**
+         * 增加需求
+         *
+         * @param n 数量, 必须大于0; Long.MAX_VALUE表示不限
+         */
+        void request(long n);
+
+        /**
+         * 取消订阅
+         */
+        void cancel();
+    }
+
+    /**
+     * 政策文件进度
+     */
+    @Value
+    public static class PaperEvent {
+
+        Type type;
+
+        int year;
+
+        String url;
+
+        /**
+         * 在所有政策文件中的序号, 从0开始
+         */
+        int index;
+
+        /**
+         * 政策文件总数
+         */
+        int total;
+
+        /**
+         * 解析出的日期数, STARTED时为0
+         */
+        int days;
+
+        public enum Type {
+
+            /**
+             * 开始下载
+             */
+            STARTED,
+
+            /**
+             * 解析完成, 日期等待发布
+             */
+            PARSED,
+
+            /**
+             * 日期已全部发布
+             */
+            EMITTED
+        }
+    }
+
+    /**
+     * 发布配置
+     */
+    @Value
+    @Builder
+    public static class Options {
+
+        /**
+         * 访问网络的HttpService, 默认为{@link HolidaySpider#defaultHttpService()}
+         */
+        HttpService httpService;
+
+        /**
+         * 是否按政策文件顺序发布, 否则按解析完成的顺序
+         */
+        @Builder.Default
+        boolean ordered = true;
+
+        /**
+         * 已开始但日期未全部发布的政策文件上限
+         */
+        @Builder.Default
+        int maxPendingPapers = 4;
+
+        /**
+         * {@link #stream()}缓冲的日期数
+         */
+        @Builder.Default
+        int bufferSize = 256;
+    }
+
+    /**
+     * 一个政策文件
+     */
+    private static final class Paper {
+
+        final int index;
+
+        final int year;
+
+        final String url;
+
+        /**
+         * 解析结果, 由PaperSubscription保护
+         */
+        List<HolidayDay> days;
+
+        Paper(int index, int year, String url) {
+            this.index = index;
+            this.year = year;
+            this.url = url;
+        }
+    }
+
+    /**
+     * 一次订阅: 搜索、按需求下载和解析、串行发出信号
+     */
+    private final class PaperSubscription implements Subscription {
+
+        private final Subscriber subscriber;
+
+        private final HttpService httpService;
+
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * 进入drain的次数, 不为0时由正在drain的线程发出信号
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+
+        /**
+         * 待发布的日期, 每个政策文件的日期之后是该文件本身, 作为发布完成的标记
+         */
+        private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+
+        private final Queue<PaperEvent> events = new ConcurrentLinkedQueue<>();
+
+        private final Map<String, CompletableFuture<List<String>>> downloads = new ConcurrentHashMap<>();
+
+        private volatile boolean cancelled;
+
+        private volatile Throwable error;
+
+        private boolean terminated;
+
+        // 以下字段由this保护
+
+        private List<Paper> papers;
+
+        private int nextToStart;
+
+        private int nextInOrder;
+
+        private int pending;
+
+        private int emitted;
+
+        PaperSubscription(Subscriber subscriber, HttpService httpService) {
+            this.subscriber = subscriber;
+            this.httpService = httpService;
+        }
+
+        void start() {
+            if (cancelled) {
+                return;
+            }
+            HolidaySpider.getPaperUrlsAsync(years, httpService).whenComplete((paperUrls, e) -> {
+                if (e != null) {
+                    fail(e);
+                    return;
+                }
+                List<Paper> found = new ArrayList<>();
+                for (int year : years) {
+                    for (String url : paperUrls.get(year)) {
+                        found.add(new Paper(found.size(), year, url));
+                    }
+                }
+                List<Paper> started;
+                synchronized (this) {
+                    papers = found;
+                    started = startPapers();
+                }
+                load(started);
+                drain();
+            });
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("请求数量必须大于0: " + n));
+                return;
+            }
+            long current;
+            long next;
+            do {
+                current = requested.get();
+                next = current + n < 0 ? Long.MAX_VALUE : current + n;
+            } while (!requested.compareAndSet(current, next));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        /**
+         * 在上限内开始新的政策文件, 调用者持有锁, 返回后在锁外开始下载
+         */
+        private List<Paper> startPapers() {
+            List<Paper> started = new ArrayList<>();
+            while (!cancelled && nextToStart < papers.size() && pending < options.getMaxPendingPapers()) {
+                Paper paper = papers.get(nextToStart++);
+                pending++;
+                events.add(event(PaperEvent.Type.STARTED, paper, 0));
+                started.add(paper);
+            }
+            return started;
+        }
+
+        private void load(List<Paper> started) {
+            for (Paper paper : started) {
+                CompletableFuture<List<HolidayDay>> days;
+                List<HolidayDay> preParsed = HolidaySpider.getPreParsedPaper(paper.url);
+                if (preParsed != null) {
+                    days = CompletableFuture.completedFuture(preParsed);
+                } else {
+                    days = downloads.computeIfAbsent(paper.url,
+                                    url -> HolidaySpider.downloadPaperAsync(url, httpService))
+                            .thenApply(lines -> HolidaySpider.parsePaper(paper.year, lines));
+                }
+                days.whenComplete((result, e) -> {
+                    if (e != null) {
+                        fail(e);
+                    } else {
+                        parsed(paper, result);
+                    }
+                });
+            }
+        }
+
+        private void parsed(Paper paper, List<HolidayDay> days) {
+            synchronized (this) {
+                paper.days = days;
+                events.add(event(PaperEvent.Type.PARSED, paper, days.size()));
+                if (options.isOrdered()) {
+                    while (nextInOrder < papers.size() && papers.get(nextInOrder).days != null) {
+                        enqueue(papers.get(nextInOrder++));
+                    }
+                } else {
+                    enqueue(paper);
+                }
+            }
+            drain();
+        }
+
+        private void enqueue(Paper paper) {
+            queue.addAll(paper.days);
+            queue.add(paper);
+        }
+
+        /**
+         * 一个政策文件的日期已全部发布, 释放名额开始新的文件
+         */
+        private void emitted(Paper paper) {
+            List<Paper> started;
+            synchronized (this) {
+                pending--;
+                emitted++;
+                events.add(event(PaperEvent.Type.EMITTED, paper, paper.days.size()));
+                started = startPapers();
+            }
+            load(started);
+        }
+
+        private synchronized boolean isCompleted() {
+            return papers != null && emitted == papers.size();
+        }
+
+        private PaperEvent event(PaperEvent.Type type, Paper paper, int days) {
+            return new PaperEvent(type, paper.year, paper.url, paper.index, papers.size(), days);
+        }
+
+        private void fail(Throwable e) {
+            if (error == null) {
+                error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            }
+            drain();
+        }
+
+        /**
+         * 串行发出信号: 同一时刻只有一个线程在循环中, 其他线程的调用只增加wip, 由该线程再循环一次
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            while (true) {
+                if (terminated || cancelled) {
+                    queue.clear();
+                    events.clear();
+                } else if (error != null) {
+                    terminate();
+                    subscriber.onError(error);
+                } else {
+                    PaperEvent event;
+                    while (!cancelled && (event = events.poll()) != null) {
+                        subscriber.onPaper(event);
+                    }
+                    long demand = requested.get();
+                    long sent = 0;
+                    Object next;
+                    while (!cancelled && error == null && (next = queue.peek()) != null) {
+                        if (next instanceof Paper) {
+                            queue.poll();
+                            emitted((Paper) next);
+                            continue;
+                        }
+                        if (sent == demand) {
+                            break;
+                        }
+                        queue.poll();
+                        subscriber.onNext((HolidayDay) next);
+                        sent++;
+                    }
+                    if (sent != 0 && demand != Long.MAX_VALUE) {
+                        requested.addAndGet(-sent);
+                    }
+                    if (!events.isEmpty()) {
+                        // emitted()新增的进度事件, 再循环一次发出
+                        continue;
+                    }
+                    if (!cancelled && error == null && queue.isEmpty() && isCompleted()) {
+                        terminate();
+                        subscriber.onComplete();
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void terminate() {
+            terminated = true;
+            cancelled = true;
+            queue.clear();
+            events.clear();
+        }
+    }
+
+    /**
+     * 把订阅转为阻塞的Iterator
+     */
+    private static final class BlockingSubscriber implements Subscriber, Iterator<HolidayDay> {
+
+        private static final Object COMPLETE = new Object();
+
+        private final int bufferSize;
+
+        private final int limit;
+
+        private final Consumer<PaperEvent> progress;
+
+        private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+
+        private volatile Subscription subscription;
+
+        private Object next;
+
+        private int consumed;
+
+        BlockingSubscriber(int bufferSize, Consumer<PaperEvent> progress) {
+            this.bufferSize = Math.max(1, bufferSize);
+            this.limit = Math.max(1, this.bufferSize / 2);
+            this.progress = progress;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(bufferSize);
+        }
+
+        @Override
+        public void onNext(HolidayDay day) {
+            queue.add(day);
+        }
+
+        @Override
+        public void onPaper(PaperEvent event) {
+            progress.accept(event);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            queue.add(new Failure(error));
+        }
+
+        @Override
+        public void onComplete() {
+            queue.add(COMPLETE);
+        }
+
+        void cancel() {
+            Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    throw new CompletionException(e);
+                }
+            }
+            if (next instanceof Failure) {
+                Throwable error = ((Failure) next).error;
+                if (error instanceof RuntimeException) {
+                    throw (RuntimeException) error;
+                }
+                if (error instanceof Error) {
+                    throw (Error) error;
+                }
+                throw new CompletionException(error);
+            }
+            return next != COMPLETE;
+        }
+
+        @Override
+        public HolidayDay next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            HolidayDay day = (HolidayDay) next;
+            next = null;
+            if (++consumed == limit) {
+                consumed = 0;
+                subscription.request(limit);
+            }
+            return day;
+        }
+
+        private static final class Failure {
+
+            final Throwable error;
+
+            Failure(Throwable error) {
+                this.error = error;
+            }
+        }
+    }
+
+}
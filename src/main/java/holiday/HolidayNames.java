@@ -0,0 +1,63 @@
+package holiday;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 节日名称驻留表, 每个名称只保存一份并分配一个int id
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@UtilityClass
+public class HolidayNames {
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    private static volatile String[] names = new String[16];
+
+    private static int count;
+
+    /**
+     * 获取名称的id, 未登记的名称会被登记
+     *
+     * @param name 节日名称
+     * @return id
+     */
+    public static int idOf(String name) {
+        Integer id = IDS.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (IDS) {
+            id = IDS.get(name);
+            if (id != null) {
+                return id;
+            }
+            String[] current = names;
+            if (count == current.length) {
+                current = Arrays.copyOf(current, count << 1);
+            }
+            current[count] = name;
+            // 先发布数组再发布id, 读到id的线程一定能读到名称
+            names = current;
+            IDS.put(name, count);
+            return count++;
+        }
+    }
+
+    /**
+     * 获取id对应的名称
+     *
+     * @param id id
+     * @return 节日名称
+     */
+    public static String nameOf(int id) {
+        return names[id];
+    }
+
+}
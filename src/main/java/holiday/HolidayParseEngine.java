@@ -0,0 +1,300 @@
+package holiday;
+
+import holiday.metrics.CrawlMetrics;
+import holiday.metrics.Stage;
+import holiday.rule.RestRuleRegistry;
+import holiday.service.HttpBodies;
+import lombok.Value;
+import lombok.extern.java.Log;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 线程安全的假期安排解析引擎
+ * <p>
+ * 引擎本身不保存解析状态: 每个线程复用一个{@link DescriptionParser}作为临时上下文,
+ * 每条规则开始时清空其中的日期历史. 同一个引擎可以被任意多个线程同时使用.
+ * 批量模式在ForkJoin线程池上并行解析一个目录中存档的全部通知, 用于修改规则后的回归检查.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Log
+public final class HolidayParseEngine {
+
+    /**
+     * 解析逻辑(句子切分、日期提取、合并等)的版本, 改变解析结果时加1, 使缓存的解析结果失效
+     */
+    public static final int PARSER_VERSION = 1;
+
+    /**
+     * 文件名开头的年份, 如2019-labor.txt
+     */
+    private static final Pattern FILE_YEAR = Pattern.compile("^(\\d{4})");
+
+    /**
+     * 通知标题中的年份, 如"关于2020年部分节假日安排的通知"
+     */
+    private static final Pattern TITLE_YEAR = Pattern.compile("(\\d{4})年");
+
+    private static volatile HolidayParseEngine defaultEngine;
+
+    private final RestRuleRegistry registry;
+
+    private final ThreadLocal<DescriptionParser> scratch;
+
+    /**
+     * 使用默认规则注册表
+     */
+    public HolidayParseEngine() {
+        this(RestRuleRegistry.getDefault());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param registry 规则注册表
+     */
+    public HolidayParseEngine(RestRuleRegistry registry) {
+        this.registry = registry;
+        this.scratch = ThreadLocal.withInitial(() -> new DescriptionParser(null, null, 0));
+    }
+
+    /**
+     * 使用默认规则注册表的引擎
+     *
+     * @return 引擎
+     */
+    public static HolidayParseEngine getDefault() {
+        HolidayParseEngine engine = defaultEngine;
+        if (engine == null) {
+            synchronized (HolidayParseEngine.class) {
+                engine = defaultEngine;
+                if (engine == null) {
+                    engine = new HolidayParseEngine();
+                    defaultEngine = engine;
+                }
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * 解析器版本和规则集合的摘要, 相同时同一正文的解析结果相同
+     *
+     * @return 摘要, 如1-0123456789abcdef
+     */
+    public String fingerprint() {
+        return PARSER_VERSION + "-" + registry.fingerprint();
+    }
+
+    /**
+     * 解析一条规则的描述
+     *
+     * @param name 节日名称
+     * @param description 假期安排描述
+     * @param year 年份
+     * @return 假期安排
+     */
+    public List<HolidayDay> parseDescription(String name, String description, int year) {
+        return scratch.get().reset(name, description, year, registry).parse();
+    }
+
+    /**
+     * 解析政策文件主体
+     *
+     * @param year 年份
+     * @param lines 政策文件各段落
+     * @return 假期安排
+     */
+    public List<HolidayDay> parsePaper(int year, List<String> lines) {
+        List<HolidayDay> days = new ArrayList<>();
+        // 规则是边识别边产出的, 识别规则的耗时不含描述解析
+        long rulesNanos = 0;
+        long start = CrawlMetrics.start();
+        Iterator<Tuple<String, String>> rules = HolidaySpider.getRules(lines);
+        while (rules.hasNext()) {
+            Tuple<String, String> rule = rules.next();
+            rulesNanos += CrawlMetrics.elapsed(start);
+            days.addAll(parseDescription(rule.v1(), rule.v2(), year));
+            start = CrawlMetrics.start();
+        }
+        if (start != 0) {
+            CrawlMetrics.recordNanos(Stage.GET_RULES, rulesNanos + CrawlMetrics.elapsed(start));
+        }
+        return days;
+    }
+
+    /**
+     * 在公共ForkJoin线程池上并行解析目录中存档的通知
+     *
+     * @param directory 目录
+     * @return 各通知的解析结果, 按文件名排序
+     * @see #parseArchive(Path, ForkJoinPool)
+     */
+    public List<Notice> parseArchive(Path directory) {
+        return parseArchive(directory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行解析目录中存档的通知
+     * <p>
+     * 只读取目录下(不含子目录)的.txt和.htm/.html文件: txt每行一段, html按详情页提取UCAP-CONTENT.
+     * 年份取文件名开头的4位数字, 没有时取第一段中的"yyyy年", 都没有的文件跳过.
+     * 单个文件读取或解析失败时记录在{@link Notice#getError()}中, 不影响其他文件.
+     *
+     * @param directory 目录
+     * @param pool 线程池
+     * @return 各通知的解析结果, 按文件名排序
+     */
+    public List<Notice> parseArchive(Path directory, ForkJoinPool pool) {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(Files::isRegularFile)
+                    .filter(file -> isText(file) || isHtml(file))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法读取目录: " + directory, e);
+        }
+        List<ForkJoinTask<Notice>> tasks = new ArrayList<>(files.size());
+        for (Path file : files) {
+            tasks.add(pool.submit(() -> parseArchived(file)));
+        }
+        List<Notice> notices = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<Notice> task : tasks) {
+            Notice notice = task.join();
+            if (notice != null) {
+                notices.add(notice);
+            }
+        }
+        return notices;
+    }
+
+    /**
+     * 解析存档中的一个文件, 失败时返回带错误信息的结果
+     *
+     * @return 解析结果, 无法确定年份时为null
+     */
+    private Notice parseArchived(Path file) {
+        int year = yearOf(file, Collections.emptyList());
+        try {
+            List<String> lines = readNotice(file);
+            year = yearOf(file, lines);
+            if (year == 0) {
+                log.warning("无法确定通知的年份, 跳过: " + file);
+                return null;
+            }
+            return parse(file, year, lines);
+        } catch (RuntimeException | AssertionError e) {
+            log.warning("无法解析通知: " + file + ": " + e);
+            return new Notice(file, year, Collections.emptyList(), e.toString());
+        }
+    }
+
+    /**
+     * 解析一个存档的通知
+     *
+     * @param file txt或html文件
+     * @return 解析结果
+     */
+    public Notice parseNotice(Path file) {
+        List<String> lines = readNotice(file);
+        int year = yearOf(file, lines);
+        if (year == 0) {
+            throw new IllegalArgumentException("无法确定通知的年份: " + file);
+        }
+        return parse(file, year, lines);
+    }
+
+    private Notice parse(Path file, int year, List<String> lines) {
+        return new Notice(file, year, Collections.unmodifiableList(parsePaper(year, lines)), null);
+    }
+
+    private static List<String> readNotice(Path file) {
+        try {
+            if (isHtml(file)) {
+                try (Reader reader = new InputStreamReader(
+                        HttpBodies.toUtf8(Files.newInputStream(file), null), StandardCharsets.UTF_8)) {
+                    return HolidaySpider.extractPaper(file.toString(), reader);
+                }
+            }
+            List<String> lines = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    lines.add(line);
+                }
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法读取通知: " + file, e);
+        }
+    }
+
+    /**
+     * 通知的年份, 无法确定时为0
+     */
+    private static int yearOf(Path file, List<String> lines) {
+        Matcher matcher = FILE_YEAR.matcher(file.getFileName().toString());
+        if (matcher.find()) {
+            return Integer.parseInt(matcher.group(1));
+        }
+        if (!lines.isEmpty()) {
+            matcher = TITLE_YEAR.matcher(lines.get(0));
+            if (matcher.find()) {
+                return Integer.parseInt(matcher.group(1));
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isText(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".txt");
+    }
+
+    private static boolean isHtml(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".htm") || name.endsWith(".html");
+    }
+
+    /**
+     * 一个存档通知的解析结果
+     */
+    @Value
+    public static class Notice {
+
+        Path file;
+
+        int year;
+
+        /**
+         * 解析出的日期, 失败时为空
+         */
+        List<HolidayDay> days;
+
+        /**
+         * 读取或解析失败的原因, 成功时为null
+         */
+        String error;
+    }
+
+}
@@ -3,19 +3,32 @@ package holiday;
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONArray;
 import com.alibaba.fastjson2.JSONObject;
+import holiday.cli.HolidayCli;
 import holiday.factory.HttpServiceFactory;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
+import holiday.io.HolidayJsonWriter;
+import holiday.metrics.Counter;
+import holiday.metrics.CrawlMetrics;
+import holiday.metrics.MeteredInputStream;
+import holiday.metrics.Stage;
+import holiday.service.HttpConfig;
+import holiday.service.HttpService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
-import static holiday.util.CommonUtil.concatIterator;
+import static holiday.util.CommonUtil.join;
+import static holiday.util.CommonUtil.utf8Length;
 
 /**
  * 2024/9/10
@@ -30,6 +43,31 @@ public class HolidaySpider {
      */
     private static final String SEARCH_URL = "https://sousuo.www.gov.cn/search-gov/data";
 
+    /**
+     * 搜索关键词, 按年搜索时后接年份
+     */
+    private static final String SEARCH_KEYWORD = "假期";
+
+    /**
+     * 搜索结果标题中的年份, 如"关于2020年部分节假日安排的通知"
+     */
+    private static final Pattern TITLE_YEAR = Pattern.compile("(\\d{4})年");
+
+    /**
+     * 按年搜索的分页大小
+     */
+    private static final SearchPageSize YEAR_PAGE_SIZE = SearchPageSize.fromSystemProperties();
+
+    /**
+     * 不带年份搜索的分页大小
+     */
+    private static final SearchPageSize BROAD_PAGE_SIZE = SearchPageSize.fromSystemProperties();
+
+    /**
+     * 替换政策搜索url的系统属性, 用于离线的本地替身服务
+     */
+    public static final String SEARCH_URL_PROPERTY = "holiday.search.url";
+
     /**
      * 排除的文件url
      */
@@ -43,97 +81,329 @@ public class HolidaySpider {
      */
     private static final Map<Integer, List<String>> PAPER_INCLUDE = new HashMap<>();
 
-    /**
-     * 预解析的政策文件
-     */
-    private static final Map<String, List<Map<String, Object>>> PRE_PARSED_PAPERS = new HashMap<>();
-
     static {
         PAPER_INCLUDE.put(2015,
                 Collections.singletonList("http://www.gov.cn/zhengce/zhengceku/2015-05/13/content_9742.htm"));
+    }
+
+    /**
+     * 政策文件解析结果缓存, 包含预解析的政策文件
+     * <p>
+     * 首次使用时才创建并登记预解析的文件, 只读取已有数据的命令行调用不必加载
+     */
+    private static final class PaperCacheHolder {
 
-        List<Map<String, Object>> paper20150513 = new ArrayList<>();
-        paper20150513.add(createDay("抗日战争暨世界反法西斯战争胜利70周年纪念日",
-                LocalDate.of(2015, 9, 3), true));
-        paper20150513.add(createDay("抗日战争暨世界反法西斯战争胜利70周年纪念日",
-                LocalDate.of(2015, 9, 4), true));
-        paper20150513.add(createDay("抗日战争暨世界反法西斯战争胜利70周年纪念日",
-                LocalDate.of(2015, 9, 5), true));
-        paper20150513.add(createDay("抗日战争暨世界反法西斯战争胜利70周年纪念日",
-                LocalDate.of(2015, 9, 6), false));
-        PRE_PARSED_PAPERS.put("http://www.gov.cn/zhengce/zhengceku/2015-05/13/content_9742.htm", paper20150513);
+        static final PaperCache CACHE = PaperCache.fromSystemProperties();
+
+        static {
+            List<HolidayDay> paper20150513 = new ArrayList<>();
+            paper20150513.add(createDay("抗日战争暨世界反法西斯战争胜利70周年纪念日",
+                    LocalDate.of(2015, 9, 3), true));
+            paper20150513.add(createDay("抗日战争暨世界反法西斯战争胜利70周年纪念日",
+                    LocalDate.of(2015, 9, 4), true));
+            paper20150513.add(createDay("抗日战争暨世界反法西斯战争胜利70周年纪念日",
+                    LocalDate.of(2015, 9, 5), true));
+            paper20150513.add(createDay("抗日战争暨世界反法西斯战争胜利70周年纪念日",
+                    LocalDate.of(2015, 9, 6), false));
+            CACHE.putOverride("http://www.gov.cn/zhengce/zhengceku/2015-05/13/content_9742.htm", paper20150513);
+
+            List<HolidayDay> paper20200127 = new ArrayList<>();
+            paper20200127.add(createDay("春节",
+                    LocalDate.of(2020, 1, 31), true));
+            paper20200127.add(createDay("春节",
+                    LocalDate.of(2020, 2, 1), true));
+            paper20200127.add(createDay("春节",
+                    LocalDate.of(2020, 2, 2), true));
+            paper20200127.add(createDay("春节",
+                    LocalDate.of(2020, 2, 3), false));
+            CACHE.putOverride("http://www.gov.cn/zhengce/zhengceku/2020-01/27/content_5472352.htm", paper20200127);
+        }
+    }
+
+    /**
+     * 默认的httpService, 按系统属性创建, 首次抓取时才加载http实现; 开启磁盘缓存时总是重新验证搜索接口
+     */
+    private static final class HttpServiceHolder {
 
-        List<Map<String, Object>> paper20200127 = new ArrayList<>();
-        paper20200127.add(createDay("春节",
-                LocalDate.of(2020, 1, 31), true));
-        paper20200127.add(createDay("春节",
-                LocalDate.of(2020, 2, 1), true));
-        paper20200127.add(createDay("春节",
-                LocalDate.of(2020, 2, 2), true));
-        paper20200127.add(createDay("春节",
-                LocalDate.of(2020, 2, 3), false));
-        PRE_PARSED_PAPERS.put("http://www.gov.cn/zhengce/zhengceku/2020-01/27/content_5472352.htm", paper20200127);
+        static final HttpService HTTP_SERVICE = HttpServiceFactory.createHttpService(
+                HttpConfig.fromSystemProperties().toBuilder()
+                        .cacheAlwaysRevalidate(HolidaySpider::isSearchUrl)
+                        .build());
     }
 
     /**
-     * 创建dayMap
+     * 创建day
      *
      * @param name      节日名称
      * @param date      日期
      * @param isOffDay  是否为休息日
-     * @return          dayMap
+     * @return          day
      */
-    private static Map<String, Object> createDay(String name, LocalDate date, boolean isOffDay) {
-        Map<String, Object> holiday = new HashMap<>();
-        holiday.put("name", name);
-        holiday.put("date", date);
-        holiday.put("isOffDay", isOffDay);
-        return holiday;
+    private static HolidayDay createDay(String name, LocalDate date, boolean isOffDay) {
+        return HolidayDay.of(name, date, isOffDay);
     }
 
     /**
      * 获取政策文件详情页Urls
      *
      * @param year 年份
+     * @param httpService httpService
      * @return 详情页Urls
      */
-    private static List<String> getPaperUrls(int year) {
-        HashMap<String, Object> params = new HashMap<String, Object>() {{
-            put("t", "zhengcelibrary_gw");
-            put("n", 5);
-            put("q", "假期 " + year);
-            put("pcodeJiguan", "国办发明电");
-            put("puborg", "国务院办公厅");
-            put("filetype", "通知");
-            put("sort", "pubtime");
-        }};
-        int pageIndex = 0;
-        boolean hasNextPage = true;
-        List<String> ret = new ArrayList<>();
-        while (hasNextPage) {
-            params.put("p", pageIndex++);
-            String bodyStr = HttpServiceFactory.createHttpService().getBody(SEARCH_URL, params);
-            JSONObject body = JSON.parseObject(bodyStr);
-            if(1001 == body.getInteger("code")) {
-                return Collections.emptyList();
+    static List<String> getPaperUrls(int year, HttpService httpService) {
+        return join(getPaperUrlsAsync(year, httpService));
+    }
+
+    /**
+     * 异步获取政策文件详情页Urls
+     * <p>
+     * 第一页返回总页数后, 其余各页同时请求, 结果按页码顺序合并
+     *
+     * @param year 年份
+     * @param httpService httpService
+     * @return 详情页Urls
+     */
+    static CompletableFuture<List<String>> getPaperUrlsAsync(int year, HttpService httpService) {
+        return searchAsync(SEARCH_KEYWORD + " " + year, httpService).thenApply(pages -> pages == null
+                ? Collections.<String>emptyList()
+                : withIncludedPaperUrls(year, matchPaperUrls(year, pages)));
+    }
+
+    /**
+     * 异步获取多年的政策文件详情页Urls
+     * <p>
+     * 只搜索一次不带年份的关键词, 按标题中的年份把结果分到各年.
+     * 搜索结果按发布时间倒序, 搜索服务截断结果时缺少的是最早发布的部分, 所以只采用比结果中最早的年份更晚的年份;
+     * 最早的年份及更早的年份(可能只有部分结果)、以及在这次搜索中没有结果的已过年份再单独按年搜索.
+     *
+     * @param years 年份
+     * @param httpService httpService
+     * @return 年份到详情页Urls, 按years的顺序
+     */
+    static CompletableFuture<Map<Integer, List<String>>> getPaperUrlsAsync(
+            Collection<Integer> years, HttpService httpService) {
+        return searchAsync(SEARCH_KEYWORD, httpService).thenCompose(pages -> {
+            int currentYear = LocalDate.now().getYear();
+            int oldestYear = pages == null ? Integer.MAX_VALUE : oldestTitleYear(pages);
+            Map<Integer, CompletableFuture<List<String>>> futures = new LinkedHashMap<>();
+            for (int year : years) {
+                if (futures.containsKey(year)) {
+                    continue;
+                }
+                List<String> urls = year > oldestYear ? matchPaperUrls(year, pages) : Collections.emptyList();
+                futures.put(year, urls.isEmpty() && year <= currentYear
+                        ? getPaperUrlsAsync(year, httpService)
+                        : CompletableFuture.completedFuture(withIncludedPaperUrls(year, urls)));
             }
-            assert 200 == body.getInteger("code") :
-                    String.format("%s: %s: %s", SEARCH_URL, body.getInteger("code"), body.getString("msg"));
-            JSONObject searchVO = body.getJSONObject("searchVO");
+            return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                    .thenApply(ignored -> {
+                        Map<Integer, List<String>> ret = new LinkedHashMap<>();
+                        futures.forEach((year, urls) -> ret.put(year, urls.join()));
+                        return ret;
+                    });
+        });
+    }
+
+    /**
+     * 搜索结果标题中最早的年份
+     *
+     * @param pages 搜索结果页
+     * @return 年份, 没有时为Integer.MAX_VALUE
+     */
+    private static int oldestTitleYear(List<JSONObject> pages) {
+        int ret = Integer.MAX_VALUE;
+        for (JSONObject searchVO : pages) {
             JSONArray listVO = searchVO.getJSONArray("listVO");
             for (int i = 0; i < listVO.size(); i++) {
-                JSONObject obj = listVO.getJSONObject(i);
-                String title = obj.getString("title");
-                if(title.contains(String.valueOf(year))) {
-                    String url = obj.getString("url");
-                    if(!PAPER_EXCLUDE.contains(url)) {
-                        ret.add(url);
-                    }
+                Matcher matcher = TITLE_YEAR.matcher(listVO.getJSONObject(i).getString("title"));
+                while (matcher.find()) {
+                    ret = Math.min(ret, Integer.parseInt(matcher.group(1)));
                 }
             }
-            hasNextPage = pageIndex < searchVO.getLong("totalpage");
         }
-        ret.addAll(PAPER_INCLUDE.getOrDefault(year, Collections.emptyList()));
+        return ret;
+    }
+
+    /**
+     * 请求全部搜索结果页, 第一页返回总页数后其余各页同时请求
+     * <p>
+     * 结果按发布时间倒序, 按页码排列即按发布时间排列. 完成后按命中数调整下一次搜索的页大小.
+     *
+     * @param query 关键词
+     * @param httpService httpService
+     * @return 按页码排列的searchVO, 没有结果时为null
+     */
+    private static CompletableFuture<List<JSONObject>> searchAsync(String query, HttpService httpService) {
+        String searchUrl = searchUrl();
+        SearchPageSize pageSizes = SEARCH_KEYWORD.equals(query) ? BROAD_PAGE_SIZE : YEAR_PAGE_SIZE;
+        int pageSize = pageSizes.get();
+        return getSearchPageAsync(searchUrl, query, 0, pageSize, httpService).thenCompose(firstPage -> {
+            JSONObject searchVO = parseSearchPage(firstPage);
+            if (searchVO == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            List<CompletableFuture<JSONObject>> pages = new ArrayList<>();
+            pages.add(CompletableFuture.completedFuture(searchVO));
+            for (int pageIndex = 1; pageIndex < searchVO.getLong("totalpage"); pageIndex++) {
+                pages.add(getSearchPageAsync(searchUrl, query, pageIndex, pageSize, httpService)
+                        .thenApply(HolidaySpider::parseSearchPage));
+            }
+            return CompletableFuture.allOf(pages.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(ignored -> {
+                        List<JSONObject> ret = new ArrayList<>(pages.size());
+                        int hits = 0;
+                        for (CompletableFuture<JSONObject> page : pages) {
+                            if (page.join() == null) {
+                                return null;
+                            }
+                            ret.add(page.join());
+                            hits += page.join().getJSONArray("listVO").size();
+                        }
+                        pageSizes.observe(hits);
+                        return ret;
+                    });
+        });
+    }
+
+    /**
+     * 只获取第一页搜索结果中的政策文件url(按发布时间倒序), 用于增量更新
+     *
+     * @param year 年份
+     * @param httpService httpService
+     * @return 详情页Urls, 不含{@link #getIncludedPaperUrls(int)}, 没有结果时为空
+     */
+    static List<String> getFirstPagePaperUrls(int year, HttpService httpService) {
+        JSONObject searchVO = parseSearchPage(join(
+                getSearchPageAsync(searchUrl(), SEARCH_KEYWORD + " " + year, 0, YEAR_PAGE_SIZE.get(), httpService)));
+        List<String> ret = new ArrayList<>();
+        if (searchVO != null) {
+            addPaperUrls(year, searchVO, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * 规则不包含的放假政策文件URL
+     *
+     * @param year 年份
+     * @return 详情页Urls
+     */
+    static List<String> getIncludedPaperUrls(int year) {
+        return PAPER_INCLUDE.getOrDefault(year, Collections.emptyList());
+    }
+
+    private static String searchUrl() {
+        return System.getProperty(SEARCH_URL_PROPERTY, SEARCH_URL);
+    }
+
+    /**
+     * 默认的httpService, 抓取时未指定httpService的入口共用
+     *
+     * @return httpService
+     */
+    static HttpService defaultHttpService() {
+        return HttpServiceHolder.HTTP_SERVICE;
+    }
+
+    /**
+     * 是否为政策搜索接口, 搜索结果随新通知发布而变化, 缓存时不使用新鲜期
+     *
+     * @param url url
+     * @return 是否为搜索url
+     */
+    public static boolean isSearchUrl(String url) {
+        return searchUrl().equals(url);
+    }
+
+    /**
+     * 请求一页搜索结果, 记录耗时和字节数
+     *
+     * @param searchUrl 搜索url
+     * @param query 关键词
+     * @param pageIndex 页码
+     * @param pageSize 页大小
+     * @param httpService httpService
+     * @return 搜索结果
+     */
+    private static CompletableFuture<String> getSearchPageAsync(
+            String searchUrl, String query, int pageIndex, int pageSize, HttpService httpService) {
+        long start = CrawlMetrics.start();
+        CompletableFuture<String> page = httpService.getBodyAsync(searchUrl, searchParams(query, pageIndex, pageSize));
+        if (start == 0) {
+            return page;
+        }
+        return page.whenComplete((body, e) -> {
+            CrawlMetrics.record(Stage.SEARCH_PAGE, start);
+            if (body != null) {
+                CrawlMetrics.increment(Counter.BODY_BYTES, utf8Length(body));
+            }
+        });
+    }
+
+    /**
+     * 搜索参数
+     *
+     * @param query 关键词
+     * @param pageIndex 页码
+     * @param pageSize 页大小
+     * @return 参数
+     */
+    private static Map<String, Object> searchParams(String query, int pageIndex, int pageSize) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("t", "zhengcelibrary_gw");
+        params.put("n", pageSize);
+        params.put("q", query);
+        params.put("pcodeJiguan", "国办发明电");
+        params.put("puborg", "国务院办公厅");
+        params.put("filetype", "通知");
+        params.put("sort", "pubtime");
+        params.put("p", pageIndex);
+        return params;
+    }
+
+    /**
+     * 解析搜索结果页
+     *
+     * @param bodyStr 搜索结果
+     * @return searchVO, 没有结果(1001)时为null
+     */
+    private static JSONObject parseSearchPage(String bodyStr) {
+        JSONObject body = JSON.parseObject(bodyStr);
+        if(1001 == body.getInteger("code")) {
+            return null;
+        }
+        assert 200 == body.getInteger("code") :
+                String.format("%s: %s: %s", searchUrl(), body.getInteger("code"), body.getString("msg"));
+        return body.getJSONObject("searchVO");
+    }
+
+    /**
+     * 按页码顺序收集标题包含年份的政策文件url
+     * <p>
+     * 各页同时请求时若有新发布的通知, 分页边界会移动, 同一url可能出现在相邻两页, 只保留第一次出现
+     *
+     * @param year 年份
+     * @param pages 搜索结果页
+     * @return 详情页Urls
+     */
+    private static List<String> matchPaperUrls(int year, List<JSONObject> pages) {
+        List<String> ret = new ArrayList<>();
+        for (JSONObject searchVO : pages) {
+            addPaperUrls(year, searchVO, ret);
+        }
+        return new ArrayList<>(new LinkedHashSet<>(ret));
+    }
+
+    /**
+     * 加上规则不包含的政策文件
+     *
+     * @param year 年份
+     * @param urls 搜索到的详情页Urls
+     * @return 详情页Urls
+     */
+    private static List<String> withIncludedPaperUrls(int year, List<String> urls) {
+        List<String> ret = new ArrayList<>(urls);
+        ret.addAll(getIncludedPaperUrls(year));
 
         if (ret.isEmpty() && LocalDate.now().getYear() >= year) {
             throw new RuntimeException("无法获取" + year + "年的假期安排");
@@ -143,41 +413,161 @@ public class HolidaySpider {
     }
 
     /**
-     * 解析政策文件
+     * 收集一页搜索结果中标题包含年份且未排除的url
+     *
+     * @param year 年份
+     * @param searchVO 搜索结果页
+     * @param ret 详情页Urls
+     */
+    private static void addPaperUrls(int year, JSONObject searchVO, List<String> ret) {
+        JSONArray listVO = searchVO.getJSONArray("listVO");
+        for (int i = 0; i < listVO.size(); i++) {
+            JSONObject obj = listVO.getJSONObject(i);
+            String title = obj.getString("title");
+            if(title.contains(String.valueOf(year))) {
+                String url = obj.getString("url");
+                if(!PAPER_EXCLUDE.contains(url)) {
+                    ret.add(url);
+                }
+            }
+        }
+    }
+
+    /**
+     * 异步解析政策文件
      *
      * @param year 年份
      * @param url 详情页url
+     * @param httpService httpService
      * @return 假期安排
      */
-    private static List<Map<String, Object>> parsePaper(int year, String url) {
-        if (PRE_PARSED_PAPERS.containsKey(url)) {
-            return PRE_PARSED_PAPERS.get(url);
+    private static CompletableFuture<List<HolidayDay>> parsePaperAsync(int year, String url, HttpService httpService) {
+        List<HolidayDay> preParsed = getPreParsedPaper(url);
+        if (preParsed != null) {
+            return CompletableFuture.completedFuture(preParsed);
         }
-        return StreamSupport
-                .stream(Spliterators.spliteratorUnknownSize(getRules(getPaper(url)), 0), false)
-                .map(rule -> new DescriptionParser(rule.v1(), rule.v2(), year).parse())
-                .flatMap(List::stream)
-                .collect(Collectors.toList());
+        return downloadPaperAsync(url, httpService).thenApply(lines -> parsePaper(year, lines));
+    }
+
+    /**
+     * 异步下载详情页并边读边提取政策文件主体
+     * <p>
+     * 用{@link HttpService#getBodyStreamAsync}打开详情页(可以对冲, 受截止时间限制),
+     * 收到响应头后在共享的阻塞调用线程池中边读边提取, 不把整个详情页读入内存, 也不在池中等待池中的任务
+     *
+     * @param url 详情页url
+     * @param httpService httpService
+     * @return 政策文件各段落
+     */
+    static CompletableFuture<List<String>> downloadPaperAsync(String url, HttpService httpService) {
+        long start = CrawlMetrics.start();
+        return httpService.getBodyStreamAsync(url, null)
+                .thenCompose(body -> HttpService.supplyBlocking(() -> readPaper(url, body, start)));
+    }
+
+    /**
+     * 获取预解析的政策文件
+     *
+     * @param url 详情页url
+     * @return 假期安排, 没有预解析时为null
+     */
+    static List<HolidayDay> getPreParsedPaper(String url) {
+        return PaperCacheHolder.CACHE.getOverride(url);
+    }
+
+    /**
+     * 政策文件解析结果缓存
+     *
+     * @return 缓存
+     */
+    public static PaperCache getPaperCache() {
+        return PaperCacheHolder.CACHE;
     }
 
     /**
-     * 获取政策文件主体
+     * 解析政策文件主体, 解析器版本、正文和年份相同时复用缓存的结果
+     *
+     * @param year 年份
+     * @param lines 政策文件各段落
+     * @return 不可修改的假期安排
+     */
+    static List<HolidayDay> parsePaper(int year, List<String> lines) {
+        HolidayParseEngine engine = HolidayParseEngine.getDefault();
+        return PaperCacheHolder.CACHE.get(engine.fingerprint(), year, lines, () -> engine.parsePaper(year, lines));
+    }
+
+    /**
+     * 解析政策文件主体
+     *
+     * @param year 年份
+     * @param lines 政策文件各段落
+     * @return 假期安排
+     */
+    static List<HolidayDay> parsePaperContent(int year, List<String> lines) {
+        return HolidayParseEngine.getDefault().parsePaper(year, lines);
+    }
+
+    /**
+     * 下载详情页并边读边提取政策文件主体, 阻塞直到读完
+     * <p>
+     * 与{@link #downloadPaperAsync}一样通过{@link HttpService#getBodyStreamAsync}打开详情页,
+     * 会等待共享的阻塞调用线程池, 不应在该线程池中调用
      *
      * @param url 详情页url
-     * @return 政策文件主体
+     * @param httpService httpService
+     * @return 政策文件各段落
      */
-    private static String getPaper(String url) {
-        String body = HttpServiceFactory.createHttpService().getBody(url, null);
-        Document doc = Jsoup.parse(body);
-        Element container = doc.getElementById("UCAP-CONTENT");
-        assert container != null : "无法从url获取政策文件主体： " + url;
+    static List<String> downloadPaper(String url, HttpService httpService) {
+        long start = CrawlMetrics.start();
+        return readPaper(url, join(httpService.getBodyStreamAsync(url, null)), start);
+    }
 
-        StringBuilder content = new StringBuilder();
-        for (Element p : container.getElementsByTag("p")) {
-            content.append(p.text()).append("\n");
+    /**
+     * 边读边提取并关闭body, 开启指标时记录下载和提取的耗时
+     *
+     * @param start 开始打开详情页的时间, 未开启指标时为0
+     */
+    private static List<String> readPaper(String url, InputStream body, long start) {
+        if (start == 0) {
+            return readPaper(url, body);
+        }
+        // 下载和提取交替进行, 打开和阻塞在读取上的时间算作下载, 其余算作提取
+        long openNanos = CrawlMetrics.elapsed(start);
+        MeteredInputStream metered = new MeteredInputStream(body);
+        List<String> lines = readPaper(url, metered);
+        long downloadNanos = openNanos + metered.getReadNanos();
+        CrawlMetrics.recordNanos(Stage.PAPER_DOWNLOAD, downloadNanos);
+        CrawlMetrics.recordNanos(Stage.EXTRACT, CrawlMetrics.elapsed(start) - downloadNanos);
+        CrawlMetrics.increment(Counter.BODY_BYTES, metered.getBytes());
+        return lines;
+    }
+
+    private static List<String> readPaper(String url, InputStream body) {
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return extractPaper(url, reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法读取政策文件: " + url, e);
+        }
+    }
+
+    /**
+     * 从详情页提取政策文件主体, 边读边扫描, 不构建DOM
+     *
+     * @param url 详情页url
+     * @param body 详情页html
+     * @return 政策文件各段落
+     */
+    public static List<String> extractPaper(String url, Reader body) {
+        List<String> lines = new ArrayList<>();
+        boolean found;
+        try {
+            found = PaperExtractor.extract(body, lines::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法读取政策文件: " + url, e);
         }
-        assert content.length() > 0 : "无法从url获取政策文件内容: " + url;
-        return content.toString().trim();
+        assert found : "无法从url获取政策文件主体： " + url;
+        assert !lines.isEmpty() : "无法从url获取政策文件内容: " + url;
+        return lines;
     }
 
     /**
@@ -187,17 +577,7 @@ public class HolidaySpider {
      * @return 普通规则行<节日,描述>
      */
     public static Iterator<Tuple<String, String>> getNormalRules(Iterator<String> lines) {
-        List<Tuple<String, String>> rules = new ArrayList<>();
-        while (lines.hasNext()) {
-            String line = lines.next();
-            Matcher matcher = Pattern.compile("[一二三四五六七八九十]、(.+?)[：:](.+)").matcher(line);
-            if (matcher.find()) {
-                String name = matcher.group(1);
-                String desc = matcher.group(2);
-                rules.add(new Tuple<>(name, desc));
-            }
-        }
-        return rules.iterator();
+        return new RuleIterator(lines, true, false, false);
     }
 
     /**
@@ -207,28 +587,7 @@ public class HolidaySpider {
      * @return 补充规则行<节日,描述>
      */
     public static Iterator<Tuple<String, String>> getPatchRules(Iterator<String> lines) {
-        String name = null;
-        List<Tuple<String, String>> rules = new ArrayList<>();
-        while (lines.hasNext()) {
-            String line = lines.next();
-            Matcher matcher = Pattern.compile(".*\\d+年([^和、]{2,})(?:假期|放假).*安排").matcher(line);
-            if (matcher.find()) {
-                name = matcher.group(1);
-            }
-            if (name == null) {
-                continue;
-            }
-
-            matcher = Pattern.compile("^[一二三四五六七八九十]、(.+)$").matcher(line);
-            if (!matcher.find()) {
-                continue;
-            }
-            String desc = matcher.group(1);
-            if (Pattern.matches(".*\\d+月\\d+日.*", desc)) {
-                rules.add(new Tuple<>(name, desc));
-            }
-        }
-        return rules.iterator();
+        return new RuleIterator(lines, false, true, false);
     }
 
     /**
@@ -238,14 +597,17 @@ public class HolidaySpider {
      * @return 规则行<节日,描述>
      */
     public static Iterator<Tuple<String, String>> getRules(String paper) {
-        List<String> lines = Arrays.asList(paper.split("[\r\n]"));
-        List<String> finalLines = lines;
-        lines = new ArrayList<>(new HashSet<>(lines));
-        lines.sort(Comparator.comparingInt(finalLines::indexOf));
+        return getRules(Arrays.asList(paper.split("[\r\n]")));
+    }
 
-        Iterator<Tuple<String, String>> rules = concatIterator(
-                getNormalRules(lines.iterator()),
-                getPatchRules(lines.iterator()));
+    /**
+     * 获取政策文件的规则, 重复的行只保留第一次出现, 普通规则在前, 补充规则在后
+     *
+     * @param lines 政策文件各行
+     * @return 规则行<节日,描述>
+     */
+    public static Iterator<Tuple<String, String>> getRules(List<String> lines) {
+        Iterator<Tuple<String, String>> rules = new RuleIterator(lines.iterator(), true, true, true);
 
         if (!rules.hasNext()) {
             throw new RuntimeException("文件不包含任何规则");
@@ -254,6 +616,108 @@ public class HolidaySpider {
         return rules;
     }
 
+    /**
+     * 获取假期安排
+     *
+     * @param year 年份
+     * @return 假期安排
+     */
+    public static HolidayYear fetchHolidayYear(int year) {
+        return join(fetchHolidayYearAsync(year));
+    }
+
+    /**
+     * 异步获取假期安排, 一年的所有搜索页和政策文件同时请求
+     *
+     * @param year 年份
+     * @return 假期安排
+     */
+    public static CompletableFuture<HolidayYear> fetchHolidayYearAsync(int year) {
+        HttpService httpService = defaultHttpService();
+        return getPaperUrlsAsync(year, httpService).thenCompose(paperUrls -> {
+            List<CompletableFuture<List<HolidayDay>>> papers = paperUrls.stream()
+                    .map(paperUrl -> parsePaperAsync(year, paperUrl, httpService))
+                    .collect(Collectors.toList());
+            return CompletableFuture.allOf(papers.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(ignored -> new HolidayYear(year, paperUrls, papers.stream()
+                            .map(CompletableFuture::join)
+                            .flatMap(List::stream)
+                            .collect(Collectors.toList())));
+        });
+    }
+
+    /**
+     * 获取多年的假期安排
+     *
+     * @param years 年份
+     * @return 假期安排, 与years顺序相同
+     */
+    public static List<HolidayYear> fetchHolidayYears(Collection<Integer> years) {
+        return join(fetchHolidayYearsAsync(years));
+    }
+
+    /**
+     * 异步获取多年的假期安排
+     * <p>
+     * 所有年份共用一次搜索, 多个年份都包含的政策文件只下载一次
+     *
+     * @param years 年份
+     * @return 假期安排, 与years顺序相同
+     */
+    public static CompletableFuture<List<HolidayYear>> fetchHolidayYearsAsync(Collection<Integer> years) {
+        HttpService httpService = defaultHttpService();
+        return getPaperUrlsAsync(years, httpService).thenCompose(paperUrls -> {
+            Map<String, CompletableFuture<List<String>>> downloads = new HashMap<>();
+            Map<Integer, List<CompletableFuture<List<HolidayDay>>>> papers = new HashMap<>();
+            paperUrls.forEach((year, urls) -> papers.put(year, urls.stream()
+                    .map(url -> {
+                        List<HolidayDay> preParsed = getPreParsedPaper(url);
+                        if (preParsed != null) {
+                            return CompletableFuture.completedFuture(preParsed);
+                        }
+                        return downloads.computeIfAbsent(url, key -> downloadPaperAsync(key, httpService))
+                                .thenApply(lines -> parsePaper(year, lines));
+                    })
+                    .collect(Collectors.toList())));
+            return CompletableFuture.allOf(papers.values().stream()
+                            .flatMap(List::stream)
+                            .toArray(CompletableFuture<?>[]::new))
+                    .thenApply(ignored -> years.stream()
+                            .map(year -> new HolidayYear(year, paperUrls.get(year), papers.get(year).stream()
+                                    .map(CompletableFuture::join)
+                                    .flatMap(List::stream)
+                                    .collect(Collectors.toList())))
+                            .collect(Collectors.toList()));
+        });
+    }
+
+    /**
+     * 流式获取多年的假期安排, 每个政策文件解析后立即发布其中的日期
+     *
+     * @param years 年份
+     * @return 发布者, 每次订阅重新抓取
+     */
+    public static HolidayDayPublisher publishHolidays(Collection<Integer> years) {
+        return new HolidayDayPublisher(years);
+    }
+
+    /**
+     * 获取假期日历
+     *
+     * @param fromYear 起始年份(含)
+     * @param toYear 结束年份(含)
+     * @return 假期日历
+     */
+    public static HolidayCalendar fetchHolidayCalendar(int fromYear, int toYear) {
+        List<Integer> years = new ArrayList<>();
+        for (int year = fromYear; year <= toYear; year++) {
+            years.add(year);
+        }
+        HolidayCalendar.Builder builder = HolidayCalendar.builder();
+        fetchHolidayYears(years).forEach(builder::add);
+        return builder.build();
+    }
+
     /**
      * 获取假期安排JSON
      *
@@ -261,21 +725,40 @@ public class HolidaySpider {
      * @return 假期安排JSON
      */
     public static String fetchHoliday(int year) {
-        List<String> paperUrls = getPaperUrls(year);
-        HashMap<String, Object> result = new HashMap<>();
-        result.put("year", year);
-        result.put("papers", paperUrls);
-        result.put("days", paperUrls.stream()
-                .map(paperUrl -> parsePaper(year, paperUrl))
-                .flatMap(List::stream)
-                .collect(Collectors.toList()));
-        return JSON.toJSONString(result);
+        HolidayYear holidayYear = fetchHolidayYear(year);
+        long start = CrawlMetrics.start();
+        StringWriter out = new StringWriter();
+        HolidayJsonWriter writer = new HolidayJsonWriter(out);
+        writer.write(holidayYear).flush();
+        CrawlMetrics.record(Stage.JSON, start);
+        return out.toString();
     }
 
-    public static void main(String[] args) {
-        for (int i = 2023; i < 2025; i++) {
-            System.out.println(fetchHoliday(i));
+    /**
+     * 获取多年的假期安排JSON, 所有年份共用一次搜索
+     *
+     * @param years 年份
+     * @return 年份到假期安排JSON, 按years的顺序
+     */
+    public static Map<Integer, String> fetchHolidays(Collection<Integer> years) {
+        Map<Integer, String> ret = new LinkedHashMap<>();
+        for (HolidayYear holidayYear : fetchHolidayYears(years)) {
+            long start = CrawlMetrics.start();
+            StringWriter out = new StringWriter();
+            new HolidayJsonWriter(out).write(holidayYear).flush();
+            CrawlMetrics.record(Stage.JSON, start);
+            ret.put(holidayYear.getYear(), out.toString());
         }
+        return ret;
+    }
+
+    /**
+     * 命令行入口
+     *
+     * @param args 参数, 见{@link HolidayCli}
+     */
+    public static void main(String[] args) {
+        HolidayCli.main(args);
     }
 
 }
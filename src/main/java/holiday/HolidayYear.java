@@ -0,0 +1,36 @@
+package holiday;
+
+import com.alibaba.fastjson2.annotation.JSONType;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * 一年的假期安排
+ * <p>
+ * JSON字段顺序与原先的结果Map相同
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Value
+@JSONType(orders = {"year", "days", "papers"})
+public class HolidayYear {
+
+    /**
+     * 年份
+     */
+    int year;
+
+    /**
+     * 政策文件url
+     */
+    List<String> papers;
+
+    /**
+     * 假期安排
+     */
+    List<HolidayDay> days;
+
+}
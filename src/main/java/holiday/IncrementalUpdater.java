@@ -0,0 +1,258 @@
+package holiday;
+
+import holiday.service.HttpService;
+import holiday.util.CommonUtil;
+import lombok.Value;
+import lombok.extern.java.Log;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 增量更新
+ * <p>
+ * 已在清单中的年份只请求第一页搜索结果, 遇到第一个已处理的url即停止, 只下载和解析新的政策文件.
+ * 清单中没有的年份做一次全量抓取. 监听模式按固定间隔轮询, 只输出有变化的日期.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Log
+public class IncrementalUpdater implements AutoCloseable {
+
+    private final PaperManifest manifest;
+
+    private final HttpService httpService;
+
+    /**
+     * 每年一个锁, 同一年的更新(读取清单、下载、写回)依次执行, 不同年份可以同时更新
+     */
+    private final Map<Integer, Object> yearLocks = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public IncrementalUpdater(PaperManifest manifest) {
+        this(manifest, HolidaySpider.defaultHttpService());
+    }
+
+    public IncrementalUpdater(PaperManifest manifest, HttpService httpService) {
+        this.manifest = manifest;
+        this.httpService = httpService;
+    }
+
+    /**
+     * 更新一年并保存清单
+     * <p>
+     * 可以在多个线程中调用, 同一年的更新依次执行, 后执行的更新基于前一次写回的清单
+     *
+     * @param year 年份
+     * @return 变化
+     */
+    public Change update(int year) {
+        synchronized (yearLocks.computeIfAbsent(year, key -> new Object())) {
+            return updateLocked(year);
+        }
+    }
+
+    private Change updateLocked(int year) {
+        HolidayYear before = manifest.toHolidayYear(year);
+        List<PaperManifest.Entry> known = manifest.get(year);
+        List<String> newUrls = manifest.contains(year) ? findNewPaperUrls(year, known) : HolidaySpider.getPaperUrls(year, httpService);
+
+        Set<String> knownUrls = new HashSet<>();
+        known.forEach(entry -> knownUrls.add(entry.getUrl()));
+        List<PaperManifest.Entry> entries = new ArrayList<>();
+        List<String> addedPapers = new ArrayList<>();
+        for (String url : newUrls) {
+            if (!knownUrls.contains(url)) {
+                entries.add(process(year, url));
+                addedPapers.add(url);
+            }
+        }
+        if (addedPapers.isEmpty() && manifest.contains(year)) {
+            return new Change(year, before, addedPapers, new ArrayList<>(), new ArrayList<>());
+        }
+        // 搜索结果按发布时间倒序, 新文件在已处理文件之前, 与全量抓取的顺序相同
+        entries.addAll(known);
+        manifest.put(year, entries);
+        manifest.save();
+
+        HolidayYear after = manifest.toHolidayYear(year);
+        return new Change(year, after, addedPapers, difference(after.getDays(), before.getDays()),
+                difference(before.getDays(), after.getDays()));
+    }
+
+    /**
+     * 更新多年并保存清单
+     *
+     * @param years 年份
+     * @return 每年的变化
+     */
+    public List<Change> update(Collection<Integer> years) {
+        List<Change> changes = new ArrayList<>(years.size());
+        for (int year : years) {
+            changes.add(update(year));
+        }
+        return changes;
+    }
+
+    /**
+     * 按固定间隔轮询今年和明年, 只输出有变化的年份
+     *
+     * @param interval 间隔
+     * @param listener 变化
+     */
+    public void watch(Duration interval, Consumer<Change> listener) {
+        watch(() -> {
+            int year = LocalDate.now().getYear();
+            List<Integer> years = new ArrayList<>();
+            years.add(year);
+            years.add(year + 1);
+            return years;
+        }, interval, listener);
+    }
+
+    /**
+     * 按固定间隔轮询, 只输出有变化的年份. 单次轮询失败只记录日志, 不影响下一次
+     *
+     * @param years 每次轮询的年份
+     * @param interval 间隔
+     * @param listener 变化
+     */
+    public synchronized void watch(Supplier<Collection<Integer>> years, Duration interval, Consumer<Change> listener) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "holiday-watch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduler.scheduleWithFixedDelay(() -> {
+            for (int year : years.get()) {
+                try {
+                    Change change = update(year);
+                    if (change.isChanged()) {
+                        listener.accept(change);
+                    }
+                } catch (RuntimeException e) {
+                    log.warning("增量更新失败: " + year + ": " + e.getMessage());
+                }
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * 第一页中第一个已处理url之前的新url, 加上未处理的额外文件.
+     * 第一页全是新url时说明新文件不止一页, 改为全量获取url
+     */
+    private List<String> findNewPaperUrls(int year, List<PaperManifest.Entry> known) {
+        Set<String> knownUrls = new HashSet<>();
+        known.forEach(entry -> knownUrls.add(entry.getUrl()));
+        Set<String> urls = new LinkedHashSet<>();
+        boolean reachedKnown = false;
+        for (String url : HolidaySpider.getFirstPagePaperUrls(year, httpService)) {
+            if (knownUrls.contains(url)) {
+                reachedKnown = true;
+                break;
+            }
+            urls.add(url);
+        }
+        if (!reachedKnown && !urls.isEmpty() && !known.isEmpty()) {
+            return HolidaySpider.getPaperUrls(year, httpService);
+        }
+        urls.addAll(HolidaySpider.getIncludedPaperUrls(year));
+        return new ArrayList<>(urls);
+    }
+
+    /**
+     * 下载并解析一个新的政策文件, 正文与同一年已处理的文件相同时复用解析结果
+     */
+    private PaperManifest.Entry process(int year, String url) {
+        List<HolidayDay> preParsed = HolidaySpider.getPreParsedPaper(url);
+        if (preParsed != null) {
+            return new PaperManifest.Entry(url, "", preParsed);
+        }
+        List<String> lines = HolidaySpider.downloadPaper(url, httpService);
+        String hash = CommonUtil.sha256Hex(String.join("\n", lines));
+        PaperManifest.Entry same = manifest.findByHash(year, hash);
+        if (same != null) {
+            return new PaperManifest.Entry(url, hash, same.getDays());
+        }
+        return new PaperManifest.Entry(url, hash, HolidaySpider.parsePaper(year, lines));
+    }
+
+    /**
+     * a中有而b中没有的日期
+     */
+    private static List<HolidayDay> difference(List<HolidayDay> a, List<HolidayDay> b) {
+        Set<HolidayDay> exclude = new HashSet<>(b);
+        List<HolidayDay> result = new ArrayList<>();
+        for (HolidayDay day : a) {
+            if (!exclude.contains(day)) {
+                result.add(day);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 一年的变化
+     */
+    @Value
+    public static class Change {
+
+        int year;
+
+        /**
+         * 更新后的假期安排
+         */
+        HolidayYear holidayYear;
+
+        /**
+         * 新处理的政策文件
+         */
+        List<String> addedPapers;
+
+        /**
+         * 新增的日期
+         */
+        List<HolidayDay> addedDays;
+
+        /**
+         * 移除的日期
+         */
+        List<HolidayDay> removedDays;
+
+        /**
+         * 是否有变化
+         *
+         * @return 是否有新增或移除的日期
+         */
+        public boolean isChanged() {
+            return !addedDays.isEmpty() || !removedDays.isEmpty();
+        }
+    }
+
+}
@@ -0,0 +1,283 @@
+package holiday;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import holiday.metrics.Counter;
+import holiday.metrics.CrawlMetrics;
+import holiday.util.CommonUtil;
+import lombok.extern.java.Log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 按正文内容寻址的政策文件解析结果缓存
+ * <p>
+ * key为解析器版本、年份和正文(各段落以换行连接)的SHA-256: 解析时缺少年份的日期按所查年份补全,
+ * 所以同一正文在不同年份下的结果分别缓存; 版本为{@link HolidayParseEngine#fingerprint()},
+ * 解析逻辑或规则改变后不再命中之前的结果. 内存中按估算的占用字节数做LRU淘汰,
+ * 指定目录时每个结果另存为一个JSON文件(目录/版本/年份-哈希.json), 内存未命中时从磁盘读取, 跨进程复用.
+ * 同一key并发解析时只解析一次, 其余调用等待其结果.
+ * <p>
+ * 另外按url保存手工整理的解析结果(覆盖), 这些文件不下载也不解析.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Log
+public class PaperCache {
+
+    /**
+     * 内存上限(字节)的系统属性
+     */
+    public static final String MAX_BYTES_PROPERTY = "holiday.paper.cache.maxBytes";
+
+    /**
+     * 磁盘目录的系统属性, 不设置时只缓存在内存中
+     */
+    public static final String DIRECTORY_PROPERTY = "holiday.paper.cache.dir";
+
+    private static final long DEFAULT_MAX_BYTES = 4L << 20;
+
+    private static final String SUFFIX = ".json";
+
+    /**
+     * 一个条目的固定开销和每天的开销(key、列表、HolidayDay对象)
+     */
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private static final int DAY_WEIGHT = 32;
+
+    private final long maxBytes;
+
+    private final Path directory;
+
+    /**
+     * 访问顺序的LRU, 由this保护
+     */
+    private final LinkedHashMap<String, List<HolidayDay>> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long weight;
+
+    private final Map<String, CompletableFuture<List<HolidayDay>>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<String, List<HolidayDay>> overrides = new ConcurrentHashMap<>();
+
+    /**
+     * 构造只在内存中的缓存
+     *
+     * @param maxBytes 估算的内存上限
+     */
+    public PaperCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param maxBytes 估算的内存上限
+     * @param directory 磁盘目录, 为null时不持久化
+     */
+    public PaperCache(long maxBytes, Path directory) {
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("无法创建缓存目录: " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * 按系统属性创建缓存
+     *
+     * @return 缓存
+     */
+    public static PaperCache fromSystemProperties() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        return new PaperCache(Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES),
+                directory == null || directory.isEmpty() ? null : Paths.get(directory));
+    }
+
+    /**
+     * 设置一个政策文件的解析结果, 替代下载和解析
+     *
+     * @param url 详情页url
+     * @param days 假期安排
+     */
+    public void putOverride(String url, List<HolidayDay> days) {
+        overrides.put(url, Collections.unmodifiableList(new ArrayList<>(days)));
+    }
+
+    /**
+     * 获取手工设置的解析结果
+     *
+     * @param url 详情页url
+     * @return 假期安排, 没有时为null
+     */
+    public List<HolidayDay> getOverride(String url) {
+        return overrides.get(url);
+    }
+
+    /**
+     * 获取正文的解析结果, 未缓存时解析并缓存
+     *
+     * @param version 解析器版本, 同一版本对同一正文的解析结果相同, 只能包含文件名允许的字符
+     * @param year 年份
+     * @param lines 政策文件各段落
+     * @param parser 解析正文
+     * @return 不可修改的假期安排
+     */
+    public List<HolidayDay> get(String version, int year, List<String> lines, Supplier<List<HolidayDay>> parser) {
+        String key = key(version, year, lines);
+        List<HolidayDay> days = getIfPresent(key);
+        if (days != null) {
+            CrawlMetrics.increment(Counter.PAPER_CACHE_HITS, 1);
+            return days;
+        }
+        CompletableFuture<List<HolidayDay>> mine = new CompletableFuture<>();
+        CompletableFuture<List<HolidayDay>> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            CrawlMetrics.increment(Counter.PAPER_CACHE_HITS, 1);
+            return CommonUtil.join(running);
+        }
+        try {
+            days = getIfPresent(key);
+            if (days == null) {
+                days = load(key);
+                if (days == null) {
+                    CrawlMetrics.increment(Counter.PAPER_CACHE_MISSES, 1);
+                    days = Collections.unmodifiableList(new ArrayList<>(parser.get()));
+                    store(key, days);
+                } else {
+                    CrawlMetrics.increment(Counter.PAPER_CACHE_HITS, 1);
+                }
+                put(key, days);
+            } else {
+                CrawlMetrics.increment(Counter.PAPER_CACHE_HITS, 1);
+            }
+            mine.complete(days);
+            return days;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 内存中的条目数
+     *
+     * @return 条目数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 内存中条目估算的字节数
+     *
+     * @return 字节数
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    /**
+     * 清空内存中的条目, 不删除磁盘文件和覆盖
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    private synchronized List<HolidayDay> getIfPresent(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(String key, List<HolidayDay> days) {
+        List<HolidayDay> previous = entries.put(key, days);
+        if (previous != null) {
+            weight -= weigh(previous);
+        }
+        weight += weigh(days);
+        Iterator<List<HolidayDay>> eldest = entries.values().iterator();
+        while (weight > maxBytes && eldest.hasNext()) {
+            weight -= weigh(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    private static long weigh(List<HolidayDay> days) {
+        return ENTRY_OVERHEAD + (long) DAY_WEIGHT * days.size();
+    }
+
+    private static String key(String version, int year, List<String> lines) {
+        return version + "/" + year + "-" + CommonUtil.sha256Hex(String.join("\n", lines));
+    }
+
+    /**
+     * 从磁盘读取, 文件损坏时视为未缓存
+     */
+    private List<HolidayDay> load(String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = directory.resolve(key + SUFFIX);
+        try {
+            JSONArray daysJson = JSON.parseArray(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            List<HolidayDay> days = new ArrayList<>(daysJson.size());
+            for (int i = 0; i < daysJson.size(); i++) {
+                JSONObject day = daysJson.getJSONObject(i);
+                days.add(HolidayDay.of(day.getString("name"),
+                        LocalDate.parse(day.getString("date")), day.getBooleanValue("isOffDay")));
+            }
+            return Collections.unmodifiableList(days);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warning("无法读取解析缓存: " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 写入磁盘, 先写临时文件再替换; 失败时只记录日志
+     */
+    private void store(String key, List<HolidayDay> days) {
+        if (directory == null) {
+            return;
+        }
+        Path file = directory.resolve(key + SUFFIX);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(temp, JSON.toJSONBytes(days));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warning("无法写入解析缓存: " + file + ": " + e.getMessage());
+        }
+    }
+
+}
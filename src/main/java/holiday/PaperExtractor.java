@@ -0,0 +1,502 @@
+package holiday;
+
+import org.jsoup.parser.Parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 流式提取政策文件主体
+ * <p>
+ * 不构建DOM, 边读边扫描标签, 只跟踪id为UCAP-CONTENT的元素子树,
+ * 每个&lt;p&gt;结束时输出一行文本(与Jsoup的{@code Element.text()}相同的空白规整).
+ * 容器元素结束后不再读取剩余内容.
+ * <p>
+ * 按html5的规则用块级和表格元素的栈判断&lt;p&gt;何时隐式结束: 块级元素开始、所在元素结束(包括被祖先的结束标签隐式结束)、
+ * 单元格或表格结束; 作用域外的结束标签和表格外的单元格标签被忽略, 与Jsoup相同.
+ * 行内元素不入栈, 未结束的&lt;a&gt;、&lt;b&gt;等跨越&lt;div&gt;、&lt;table&gt;时段落的文本和顺序与Jsoup相同.
+ * 已知的差异: 表格没有结束时, Jsoup把之后不在单元格中的内容移到表格之前(foster parenting), 这里按源码顺序输出.
+ * 与Jsoup的对比见benchmark模块的ExtractorCheck.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+final class PaperExtractor {
+
+    private static final String CONTAINER_ID = "UCAP-CONTENT";
+
+    /**
+     * 内容不是html的元素
+     */
+    private static final Set<String> RAW_TEXT_TAGS = new HashSet<>(Arrays.asList(
+            "script", "style", "textarea", "title"));
+
+    /**
+     * 开始时会隐式关闭&lt;p&gt;的元素, 结束时关闭其中的&lt;p&gt;
+     */
+    private static final Set<String> CLOSES_PARAGRAPH_TAGS = new HashSet<>(Arrays.asList(
+            "address", "article", "aside", "blockquote", "center", "details", "dir", "div", "dl",
+            "fieldset", "figcaption", "figure", "footer", "form", "h1", "h2", "h3", "h4", "h5", "h6",
+            "header", "hgroup", "hr", "li", "main", "menu", "nav", "ol", "pre", "section",
+            "summary", "ul"));
+
+    /**
+     * 表格结构元素, 在表格内开始或结束时关闭单元格, 也关闭单元格内的&lt;p&gt;; 表格外的忽略
+     */
+    private static final Set<String> TABLE_PART_TAGS = new HashSet<>(Arrays.asList(
+            "td", "th", "tr", "tbody", "thead", "tfoot", "caption"));
+
+    private static final Set<String> HEADING_TAGS = new HashSet<>(Arrays.asList(
+            "h1", "h2", "h3", "h4", "h5", "h6"));
+
+    /**
+     * 结束标签的作用域边界, 如表格内的&lt;/div&gt;找不到表格外的div
+     */
+    private static final Set<String> DEFAULT_SCOPE = new HashSet<>(Arrays.asList(
+            "table", "td", "th", "caption"));
+
+    private static final Set<String> LIST_ITEM_SCOPE = new HashSet<>(Arrays.asList(
+            "table", "td", "th", "caption", "ol", "ul"));
+
+    private static final Set<String> TABLE_SCOPE = Collections.singleton("table");
+
+    private static final Set<String> CELL_SCOPE = new HashSet<>(Arrays.asList("td", "th", "caption"));
+
+    /**
+     * 开始单元格、行、表格分区时保留的上下文, 其上的元素隐式结束
+     */
+    private static final Set<String> ROW_CONTEXT = new HashSet<>(Arrays.asList(
+            "tr", "tbody", "thead", "tfoot", "table"));
+
+    private static final Set<String> SECTION_CONTEXT = new HashSet<>(Arrays.asList(
+            "tbody", "thead", "tfoot", "table"));
+
+    private static final Set<String> TABLE_CONTEXT = Collections.singleton("table");
+
+    /**
+     * 文本中视为空白的块级元素
+     */
+    private static final Set<String> BLOCK_TAGS = new HashSet<>(Arrays.asList(
+            "br", "dd", "dt", "col", "colgroup",
+            "ins", "del", "noscript", "meta", "link", "video", "audio", "canvas", "svg", "math"));
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    private final StringBuilder tag = new StringBuilder(64);
+
+    /**
+     * 容器内未结束的块级和表格元素, 栈底为容器本身; 行内元素不影响&lt;p&gt;的结束, 不入栈
+     */
+    private final List<String> open = new ArrayList<>();
+
+    private PaperExtractor(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * 提取UCAP-CONTENT下各&lt;p&gt;的文本, 空行不输出
+     *
+     * @param reader 详情页html
+     * @param lineConsumer 段落文本
+     * @return 是否找到UCAP-CONTENT
+     * @throws IOException 读取失败
+     */
+    static boolean extract(Reader reader, Consumer<String> lineConsumer) throws IOException {
+        return new PaperExtractor(reader).run(lineConsumer);
+    }
+
+    private boolean run(Consumer<String> lineConsumer) throws IOException {
+        String containerTag = null;
+        StringBuilder paragraph = null;
+        int paragraphDepth = 0;
+        int c;
+        while ((c = read()) >= 0) {
+            if (c != '<') {
+                if (paragraph != null) {
+                    paragraph.append((char) c);
+                }
+                continue;
+            }
+            c = read();
+            if (c == '!' || c == '?') {
+                skipMarkup(c);
+                continue;
+            }
+            boolean endTag = c == '/';
+            if (endTag) {
+                c = read();
+            }
+            if (!isAsciiLetter(c)) {
+                // 不是标签, 按文本处理
+                if (paragraph != null) {
+                    paragraph.append('<');
+                    if (endTag) {
+                        paragraph.append('/');
+                    }
+                    if (c >= 0) {
+                        paragraph.append((char) c);
+                    }
+                }
+                continue;
+            }
+            readTag(c);
+            String name = tagName();
+
+            if (endTag) {
+                if (containerTag == null) {
+                    continue;
+                }
+                int size = name.equals("p") ? open.size() : closeElement(name, containerTag);
+                if (paragraph != null && (name.equals("p") || size < paragraphDepth)) {
+                    emit(paragraph, lineConsumer);
+                    paragraph = null;
+                } else if (paragraph != null && BLOCK_TAGS.contains(name)) {
+                    paragraph.append(' ');
+                }
+                if (size == 0) {
+                    return true;
+                }
+                continue;
+            }
+
+            boolean selfClosing = tag.length() > 0 && tag.charAt(tag.length() - 1) == '/';
+            if (RAW_TEXT_TAGS.contains(name) && !selfClosing) {
+                skipRawText(name);
+                if (paragraph != null) {
+                    paragraph.append(' ');
+                }
+                continue;
+            }
+            if (containerTag == null) {
+                if (CONTAINER_ID.equals(attribute("id"))) {
+                    containerTag = name;
+                    open.add(name);
+                }
+                continue;
+            }
+            boolean closesParagraph = name.equals("p") || openElement(name, selfClosing, containerTag);
+            if (paragraph != null && closesParagraph) {
+                emit(paragraph, lineConsumer);
+                paragraph = null;
+            } else if (paragraph != null && BLOCK_TAGS.contains(name)) {
+                paragraph.append(' ');
+            }
+            if (name.equals("p") && !selfClosing) {
+                paragraph = new StringBuilder();
+                paragraphDepth = open.size();
+            }
+        }
+        if (paragraph != null) {
+            emit(paragraph, lineConsumer);
+        }
+        return containerTag != null;
+    }
+
+    /**
+     * 处理容器内的开始标签, 按需要隐式结束单元格、列表项和标题, 再入栈
+     *
+     * @return 是否关闭当前&lt;p&gt;
+     */
+    private boolean openElement(String name, boolean selfClosing, String containerTag) {
+        if (TABLE_PART_TAGS.contains(name)) {
+            // 表格外的忽略; 单元格在行内开始, 行在表格分区内开始
+            int table = lastIndexOf("table", Collections.<String>emptySet());
+            if (table < 0) {
+                return false;
+            }
+            Set<String> context = name.equals("td") || name.equals("th") ? ROW_CONTEXT
+                    : name.equals("tr") ? SECTION_CONTEXT : TABLE_CONTEXT;
+            int top = open.size() - 1;
+            while (top > table && !context.contains(open.get(top))) {
+                top--;
+            }
+            popTo(top + 1);
+        } else if (name.equals("table")) {
+            // 表格只能嵌套在单元格中, 直接在表格内开始时结束前一个表格
+            int table = lastIndexOf("table", CELL_SCOPE);
+            if (table > 0) {
+                popTo(table);
+            }
+        } else if (name.equals("li")) {
+            for (int i = open.size() - 1; i > 0; i--) {
+                String element = open.get(i);
+                if (element.equals("li")) {
+                    popTo(i);
+                    break;
+                }
+                if (!element.equals("address") && !element.equals("div")) {
+                    break;
+                }
+            }
+        } else if (HEADING_TAGS.contains(name)) {
+            if (HEADING_TAGS.contains(open.get(open.size() - 1)) && open.size() > 1) {
+                popTo(open.size() - 1);
+            }
+        } else if (!CLOSES_PARAGRAPH_TAGS.contains(name)) {
+            if (name.equals(containerTag) && !selfClosing) {
+                open.add(name);
+            }
+            return false;
+        }
+        if (!selfClosing && !name.equals("hr")) {
+            open.add(name);
+        }
+        return true;
+    }
+
+    /**
+     * 处理容器内的结束标签: 元素在作用域内时连同其上未结束的元素一起出栈, 否则忽略
+     *
+     * @return 出栈后栈的大小
+     */
+    private int closeElement(String name, String containerTag) {
+        int index = -1;
+        if (TABLE_PART_TAGS.contains(name) || name.equals("table")) {
+            index = lastIndexOf(name, TABLE_SCOPE);
+        } else if (name.equals("li")) {
+            index = lastIndexOf(name, LIST_ITEM_SCOPE);
+        } else if (HEADING_TAGS.contains(name)) {
+            for (String heading : HEADING_TAGS) {
+                index = Math.max(index, lastIndexOf(heading, DEFAULT_SCOPE));
+            }
+        } else if (CLOSES_PARAGRAPH_TAGS.contains(name) || name.equals(containerTag)) {
+            index = lastIndexOf(name, DEFAULT_SCOPE);
+        }
+        if (index >= 0) {
+            popTo(index);
+        }
+        return open.size();
+    }
+
+    /**
+     * 栈中最上面的同名元素
+     *
+     * @param name 元素名
+     * @param scope 作用域边界, 遇到时停止查找
+     * @return 下标, 不在作用域内时为-1
+     */
+    private int lastIndexOf(String name, Set<String> scope) {
+        for (int i = open.size() - 1; i >= 0; i--) {
+            String element = open.get(i);
+            if (element.equals(name)) {
+                return i;
+            }
+            if (scope.contains(element)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private void popTo(int size) {
+        open.subList(size, open.size()).clear();
+    }
+
+    /**
+     * 解码实体并规整空白后输出
+     */
+    private static void emit(StringBuilder paragraph, Consumer<String> lineConsumer) {
+        String raw = paragraph.toString();
+        if (raw.indexOf('&') >= 0) {
+            raw = Parser.unescapeEntities(raw, false);
+        }
+        StringBuilder text = new StringBuilder(raw.length());
+        boolean lastWasWhite = true;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r' || c == '\u00a0') {
+                if (!lastWasWhite) {
+                    text.append(' ');
+                    lastWasWhite = true;
+                }
+            } else if (c != '\u200b' && c != '\u00ad') {
+                text.append(c);
+                lastWasWhite = false;
+            }
+        }
+        String line = text.toString().trim();
+        if (!line.isEmpty()) {
+            lineConsumer.accept(line);
+        }
+    }
+
+    /**
+     * 读取标签名和属性直到'>', 引号内的'>'不结束标签
+     */
+    private void readTag(int first) throws IOException {
+        tag.setLength(0);
+        tag.append((char) first);
+        char quote = 0;
+        int c;
+        while ((c = read()) >= 0) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = (char) c;
+            } else if (c == '>') {
+                break;
+            }
+            tag.append((char) c);
+        }
+    }
+
+    private String tagName() {
+        int end = 0;
+        while (end < tag.length() && !isTagNameEnd(tag.charAt(end))) {
+            end++;
+        }
+        return tag.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 当前标签的属性值
+     *
+     * @param name 小写属性名
+     * @return 属性值, 不存在时为null
+     */
+    private String attribute(String name) {
+        int i = 0;
+        int length = tag.length();
+        while (i < length && !isTagNameEnd(tag.charAt(i))) {
+            i++;
+        }
+        while (i < length) {
+            while (i < length && (Character.isWhitespace(tag.charAt(i)) || tag.charAt(i) == '/')) {
+                i++;
+            }
+            int nameStart = i;
+            while (i < length && tag.charAt(i) != '=' && !isTagNameEnd(tag.charAt(i))) {
+                i++;
+            }
+            String attributeName = tag.substring(nameStart, i);
+            while (i < length && Character.isWhitespace(tag.charAt(i))) {
+                i++;
+            }
+            String value = "";
+            if (i < length && tag.charAt(i) == '=') {
+                i++;
+                while (i < length && Character.isWhitespace(tag.charAt(i))) {
+                    i++;
+                }
+                if (i < length && (tag.charAt(i) == '"' || tag.charAt(i) == '\'')) {
+                    char quote = tag.charAt(i++);
+                    int valueStart = i;
+                    while (i < length && tag.charAt(i) != quote) {
+                        i++;
+                    }
+                    value = tag.substring(valueStart, i++);
+                } else {
+                    int valueStart = i;
+                    while (i < length && !Character.isWhitespace(tag.charAt(i))) {
+                        i++;
+                    }
+                    value = tag.substring(valueStart, i);
+                }
+            }
+            if (attributeName.equalsIgnoreCase(name)) {
+                return value.indexOf('&') >= 0 ? Parser.unescapeEntities(value, true) : value;
+            }
+            if (attributeName.isEmpty()) {
+                i++;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 跳过注释、doctype等
+     */
+    private void skipMarkup(int first) throws IOException {
+        int c = read();
+        if (first == '!' && c == '-') {
+            c = read();
+            if (c == '-') {
+                skipComment();
+                return;
+            }
+        }
+        if (c != '>') {
+            skipUntil('>');
+        }
+    }
+
+    /**
+     * 跳过注释直到"--&gt;"
+     */
+    private void skipComment() throws IOException {
+        int dashes = 0;
+        int c;
+        while ((c = read()) >= 0) {
+            if (c == '>' && dashes >= 2) {
+                return;
+            }
+            dashes = c == '-' ? dashes + 1 : 0;
+        }
+    }
+
+    /**
+     * 跳过script等元素的内容直到对应的结束标签
+     */
+    private void skipRawText(String name) throws IOException {
+        String end = "</" + name;
+        int matched = 0;
+        int c;
+        while ((c = read()) >= 0) {
+            if (Character.toLowerCase((char) c) == end.charAt(matched)) {
+                if (++matched == end.length()) {
+                    skipUntil('>');
+                    return;
+                }
+            } else {
+                matched = c == '<' ? 1 : 0;
+            }
+        }
+    }
+
+    private void skipUntil(char end) throws IOException {
+        int c;
+        while ((c = read()) >= 0 && c != end) {
+            // 跳过
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private static boolean isAsciiLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isTagNameEnd(char c) {
+        return Character.isWhitespace(c) || c == '/' || c == '>';
+    }
+
+}
@@ -0,0 +1,197 @@
+package holiday;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 已处理的政策文件清单
+ * <p>
+ * 按年份记录政策文件url、正文哈希和解析结果, 保存为JSON文件.
+ * 增量更新时已记录的url不再下载, 正文哈希相同的文件直接复用解析结果.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class PaperManifest {
+
+    private static final int VERSION = 1;
+
+    private final Path file;
+
+    /**
+     * 年份到政策文件, 政策文件的顺序与全量抓取时相同
+     */
+    private final Map<Integer, List<Entry>> years = new TreeMap<>();
+
+    private PaperManifest(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 读取清单, 文件不存在时为空清单
+     *
+     * @param file 清单文件
+     * @return 清单
+     */
+    public static PaperManifest load(Path file) {
+        PaperManifest manifest = new PaperManifest(file);
+        if (!Files.exists(file)) {
+            return manifest;
+        }
+        JSONObject root;
+        try {
+            root = JSON.parseObject(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法读取清单: " + file, e);
+        }
+        if (root.getIntValue("version") != VERSION) {
+            throw new IllegalStateException("不支持的清单版本: " + root.get("version"));
+        }
+        JSONObject yearsJson = root.getJSONObject("years");
+        for (String key : yearsJson.keySet()) {
+            JSONArray papers = yearsJson.getJSONArray(key);
+            List<Entry> entries = new ArrayList<>(papers.size());
+            for (int i = 0; i < papers.size(); i++) {
+                JSONObject paper = papers.getJSONObject(i);
+                JSONArray daysJson = paper.getJSONArray("days");
+                List<HolidayDay> days = new ArrayList<>(daysJson.size());
+                for (int j = 0; j < daysJson.size(); j++) {
+                    JSONObject day = daysJson.getJSONObject(j);
+                    days.add(HolidayDay.of(day.getString("name"),
+                            LocalDate.parse(day.getString("date")), day.getBooleanValue("isOffDay")));
+                }
+                entries.add(new Entry(paper.getString("url"), paper.getString("hash"),
+                        Collections.unmodifiableList(days)));
+            }
+            manifest.years.put(Integer.parseInt(key), Collections.unmodifiableList(entries));
+        }
+        return manifest;
+    }
+
+    /**
+     * 写入清单文件, 先写临时文件再替换
+     */
+    public synchronized void save() {
+        JSONObject yearsJson = new JSONObject();
+        years.forEach((year, entries) -> yearsJson.put(String.valueOf(year), entries.stream().map(entry -> {
+            JSONObject paper = new JSONObject();
+            paper.put("url", entry.getUrl());
+            paper.put("hash", entry.getHash());
+            paper.put("days", entry.getDays());
+            return paper;
+        }).collect(Collectors.toList())));
+        JSONObject root = new JSONObject();
+        root.put("version", VERSION);
+        root.put("years", yearsJson);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            Files.write(temp, JSON.toJSONBytes(root));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法写入清单: " + file, e);
+        }
+    }
+
+    /**
+     * 是否已记录该年份
+     *
+     * @param year 年份
+     * @return 是否记录
+     */
+    public synchronized boolean contains(int year) {
+        return years.containsKey(year);
+    }
+
+    /**
+     * 一年已处理的政策文件
+     *
+     * @param year 年份
+     * @return 政策文件, 未记录时为空
+     */
+    public synchronized List<Entry> get(int year) {
+        return years.getOrDefault(year, Collections.emptyList());
+    }
+
+    /**
+     * 替换一年的政策文件
+     *
+     * @param year 年份
+     * @param entries 政策文件
+     */
+    public synchronized void put(int year, List<Entry> entries) {
+        years.put(year, Collections.unmodifiableList(new ArrayList<>(entries)));
+    }
+
+    /**
+     * 按正文哈希查找同一年已解析的政策文件
+     * <p>
+     * 解析时缺少年份的日期按所查年份补全, 同一正文在不同年份下的结果不同, 所以只在同一年内查找
+     *
+     * @param year 年份
+     * @param hash 正文哈希
+     * @return 政策文件, 没有时为null
+     */
+    public synchronized Entry findByHash(int year, String hash) {
+        if (hash.isEmpty()) {
+            return null;
+        }
+        for (Entry entry : years.getOrDefault(year, Collections.emptyList())) {
+            if (entry.getHash().equals(hash)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按清单合并一年的假期安排
+     *
+     * @param year 年份
+     * @return 假期安排
+     */
+    public synchronized HolidayYear toHolidayYear(int year) {
+        List<String> papers = new ArrayList<>();
+        List<HolidayDay> days = new ArrayList<>();
+        for (Entry entry : get(year)) {
+            papers.add(entry.getUrl());
+            days.addAll(entry.getDays());
+        }
+        return new HolidayYear(year, papers, days);
+    }
+
+    /**
+     * 一个已处理的政策文件
+     */
+    @Value
+    public static class Entry {
+
+        String url;
+
+        /**
+         * 正文的SHA-256, 预解析的文件为空字符串
+         */
+        String hash;
+
+        List<HolidayDay> days;
+    }
+
+}
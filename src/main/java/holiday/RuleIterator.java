@@ -0,0 +1,131 @@
+package holiday;
+
+import holiday.metrics.Counter;
+import holiday.metrics.CrawlMetrics;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 单次遍历通知各行, 按需产出规则
+ * <p>
+ * 每行只分类一次: 普通规则在遇到时立即产出, 补充规则暂存到所有行读完后产出,
+ * 与先产出全部普通规则再产出全部补充规则的顺序一致. 正则预编译, 先用字面量字符过滤.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+final class RuleIterator implements Iterator<Tuple<String, String>> {
+
+    /**
+     * 普通规则: 一、元旦：...
+     */
+    private static final Pattern NORMAL_RULE = Pattern.compile("[一二三四五六七八九十]、(.+?)[：:](.+)");
+
+    /**
+     * 补充规则的节日: ...2020年春节假期...安排
+     */
+    private static final Pattern PATCH_NAME = Pattern.compile(".*\\d+年([^和、]{2,})(?:假期|放假).*安排");
+
+    /**
+     * 补充规则: 一、...
+     */
+    private static final Pattern PATCH_RULE = Pattern.compile("^[一二三四五六七八九十]、(.+)$");
+
+    /**
+     * 补充规则须包含日期
+     */
+    private static final Pattern PATCH_DATE = Pattern.compile("\\d+月\\d+日");
+
+    private final Iterator<String> lines;
+
+    private final boolean normal;
+
+    private final boolean patch;
+
+    /**
+     * 已出现的行, 为null时不去重
+     */
+    private final Set<String> seen;
+
+    private final Queue<Tuple<String, String>> normalRules = new ArrayDeque<>();
+
+    private final Queue<Tuple<String, String>> patchRules = new ArrayDeque<>();
+
+    /**
+     * 补充规则当前的节日
+     */
+    private String patchName;
+
+    /**
+     * 构造函数
+     *
+     * @param lines 通知各行
+     * @param normal 是否产出普通规则
+     * @param patch 是否产出补充规则
+     * @param distinct 是否忽略重复的行(保留第一次出现)
+     */
+    RuleIterator(Iterator<String> lines, boolean normal, boolean patch, boolean distinct) {
+        this.lines = lines;
+        this.normal = normal;
+        this.patch = patch;
+        this.seen = distinct ? new HashSet<>() : null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (normalRules.isEmpty() && lines.hasNext()) {
+            classify(lines.next());
+        }
+        return !normalRules.isEmpty() || !patchRules.isEmpty();
+    }
+
+    @Override
+    public Tuple<String, String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return normalRules.isEmpty() ? patchRules.poll() : normalRules.poll();
+    }
+
+    private void classify(String line) {
+        if (seen != null && !seen.add(line)) {
+            return;
+        }
+        boolean numbered = line.indexOf('、') >= 0;
+        if (normal && numbered) {
+            Matcher matcher = NORMAL_RULE.matcher(line);
+            if (matcher.find()) {
+                normalRules.add(new Tuple<>(matcher.group(1), matcher.group(2)));
+                CrawlMetrics.increment(Counter.NORMAL_RULES, 1);
+            }
+        }
+        if (!patch) {
+            return;
+        }
+        if (line.indexOf('年') >= 0 && line.contains("安排")) {
+            Matcher matcher = PATCH_NAME.matcher(line);
+            if (matcher.find()) {
+                patchName = matcher.group(1);
+            }
+        }
+        if (patchName != null && numbered) {
+            Matcher matcher = PATCH_RULE.matcher(line);
+            if (matcher.find()) {
+                String desc = matcher.group(1);
+                if (PATCH_DATE.matcher(desc).find()) {
+                    patchRules.add(new Tuple<>(patchName, desc));
+                    CrawlMetrics.increment(Counter.PATCH_RULES, 1);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package holiday;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应的搜索分页大小
+ * <p>
+ * 第一次搜索使用配置的页大小; 每次搜索完成后按实际命中数(留出余量)调整下一次的页大小,
+ * 使同类搜索尽量一页返回, 不超过配置的上限. 按年搜索和不带年份的搜索命中数相差很大, 分别调整.
+ * 页码由服务端按它实际使用的页大小计算, 服务端限制了页大小时结果仍然正确.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+final class SearchPageSize {
+
+    /**
+     * 初始页大小的系统属性
+     */
+    static final String PAGE_SIZE_PROPERTY = "holiday.search.pageSize";
+
+    /**
+     * 页大小上限的系统属性
+     */
+    static final String MAX_PAGE_SIZE_PROPERTY = "holiday.search.maxPageSize";
+
+    private static final int DEFAULT_PAGE_SIZE = 5;
+
+    private static final int DEFAULT_MAX_PAGE_SIZE = 50;
+
+    private final int maxPageSize;
+
+    private final AtomicInteger pageSize;
+
+    SearchPageSize(int initial, int maxPageSize) {
+        this.maxPageSize = Math.max(1, maxPageSize);
+        this.pageSize = new AtomicInteger(clamp(initial));
+    }
+
+    /**
+     * 按系统属性创建
+     */
+    static SearchPageSize fromSystemProperties() {
+        return new SearchPageSize(Integer.getInteger(PAGE_SIZE_PROPERTY, DEFAULT_PAGE_SIZE),
+                Integer.getInteger(MAX_PAGE_SIZE_PROPERTY, DEFAULT_MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 下一次搜索的页大小
+     */
+    int get() {
+        return pageSize.get();
+    }
+
+    /**
+     * 记录一次完整搜索的命中数
+     *
+     * @param hits 所有页的结果数
+     */
+    void observe(int hits) {
+        pageSize.set(clamp(hits + hits / 4 + 1));
+    }
+
+    private int clamp(int size) {
+        return Math.min(maxPageSize, Math.max(1, size));
+    }
+
+}
@@ -0,0 +1,267 @@
+package holiday.cli;
+
+import holiday.HolidaySpider;
+import holiday.HolidayYear;
+import holiday.io.HolidayBinaryWriter;
+import holiday.io.HolidayDatabaseWriter;
+import holiday.io.HolidayJsonWriter;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 命令行入口
+ * <p>
+ * 用法: {@code holiday-spider [-o 目录] [-f json|binary|db] [年份...]}, 年份可以是2024、2020-2024或2020,2022-2023, 默认为今年.
+ * 不指定目录时json每行输出一年, binary输出到标准输出; 指定目录时json每年写一个yyyy.json,
+ * binary写holidays.bin, db写{@link HolidayDatabaseWriter}格式的holidays.db.
+ * <p>
+ * 启动时只解析参数, 政策文件覆盖和http实现在第一次抓取时才加载.
+ * {@code --training-run}对本地替身服务完整走一遍抓取和各种输出, 不访问网络, 用于生成AppCDS归档.
+ * 退出码: 0成功, 1抓取或写出失败, 2参数错误.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@UtilityClass
+public class HolidayCli {
+
+    static final int EXIT_OK = 0;
+
+    static final int EXIT_FAILURE = 1;
+
+    static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "用法: holiday-spider [选项] [年份...]",
+            "  年份                 2024, 2020-2024 或 2020,2022-2023, 默认为今年",
+            "  -o, --output 目录    输出目录, 不指定时输出到标准输出(db格式必须指定)",
+            "  -f, --format 格式    json(默认), binary 或 db",
+            "      --training-run   对本地替身服务抓取并输出各种格式, 用于生成AppCDS归档",
+            "  -h, --help           显示帮助");
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * 执行命令
+     *
+     * @param args 参数
+     * @param out 标准输出
+     * @param err 错误输出
+     * @return 退出码
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Arguments arguments;
+        try {
+            arguments = Arguments.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (arguments.help) {
+            out.println(USAGE);
+            return EXIT_OK;
+        }
+        try {
+            if (arguments.trainingRun) {
+                TrainingRun.run();
+                return EXIT_OK;
+            }
+            List<HolidayYear> years = HolidaySpider.fetchHolidayYears(arguments.years);
+            write(years, arguments.format, arguments.output, out);
+            return EXIT_OK;
+        } catch (RuntimeException e) {
+            err.println("抓取失败: " + e);
+            return EXIT_FAILURE;
+        }
+    }
+
+    /**
+     * 按格式写出
+     *
+     * @param years 假期安排
+     * @param format 格式
+     * @param output 输出目录, 为null时写到out
+     * @param out 标准输出
+     */
+    static void write(List<HolidayYear> years, Format format, Path output, PrintStream out) {
+        try {
+            if (output != null) {
+                Files.createDirectories(output);
+            }
+            switch (format) {
+                case JSON:
+                    writeJson(years, output, out);
+                    break;
+                case BINARY:
+                    if (output == null) {
+                        writeBinary(years, out);
+                        out.flush();
+                    } else {
+                        try (OutputStream file = Files.newOutputStream(output.resolve("holidays.bin"))) {
+                            writeBinary(years, file);
+                        }
+                    }
+                    break;
+                case DB:
+                    HolidayDatabaseWriter.write(years, output.resolve("holidays.db"));
+                    break;
+                default:
+                    throw new IllegalStateException("未知的格式: " + format);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法写出: " + output, e);
+        }
+    }
+
+    private static void writeJson(List<HolidayYear> years, Path output, PrintStream out) throws IOException {
+        if (output == null) {
+            HolidayJsonWriter writer = new HolidayJsonWriter(out);
+            for (HolidayYear year : years) {
+                writer.write(year).flush();
+                out.println();
+            }
+            return;
+        }
+        for (HolidayYear year : years) {
+            try (HolidayJsonWriter writer = new HolidayJsonWriter(
+                    Files.newOutputStream(output.resolve(year.getYear() + ".json")))) {
+                writer.write(year);
+            }
+        }
+    }
+
+    private static void writeBinary(List<HolidayYear> years, OutputStream out) {
+        HolidayBinaryWriter writer = new HolidayBinaryWriter(out);
+        for (HolidayYear year : years) {
+            writer.write(year);
+        }
+        writer.end().flush();
+    }
+
+    /**
+     * 输出格式
+     */
+    enum Format {
+        JSON,
+        BINARY,
+        DB;
+
+        static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name.trim())) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("未知的格式: " + name);
+        }
+    }
+
+    /**
+     * 解析后的命令行参数
+     */
+    static final class Arguments {
+
+        List<Integer> years = new ArrayList<>();
+
+        Path output;
+
+        Format format = Format.JSON;
+
+        boolean trainingRun;
+
+        boolean help;
+
+        /**
+         * 解析参数
+         *
+         * @param args 参数
+         * @return 参数
+         * @throws IllegalArgumentException 参数错误
+         */
+        static Arguments parse(String[] args) {
+            Arguments ret = new Arguments();
+            Set<Integer> years = new LinkedHashSet<>();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "-o":
+                    case "--output":
+                        ret.output = Paths.get(value(args, ++i, arg));
+                        break;
+                    case "-f":
+                    case "--format":
+                        ret.format = Format.of(value(args, ++i, arg));
+                        break;
+                    case "--training-run":
+                        ret.trainingRun = true;
+                        break;
+                    case "-h":
+                    case "--help":
+                        ret.help = true;
+                        break;
+                    default:
+                        if (arg.startsWith("-")) {
+                            throw new IllegalArgumentException("未知的选项: " + arg);
+                        }
+                        for (String part : arg.split(",")) {
+                            addYears(part.trim(), years);
+                        }
+                }
+            }
+            if (ret.format == Format.DB && ret.output == null && !ret.trainingRun) {
+                throw new IllegalArgumentException("db格式必须用-o指定输出目录");
+            }
+            ret.years.addAll(years.isEmpty()
+                    ? Collections.singleton(LocalDate.now().getYear())
+                    : years);
+            return ret;
+        }
+
+        private static String value(String[] args, int i, String option) {
+            if (i >= args.length) {
+                throw new IllegalArgumentException(option + "缺少参数");
+            }
+            return args[i];
+        }
+
+        /**
+         * 添加一个年份或闭区间
+         */
+        private static void addYears(String spec, Set<Integer> years) {
+            int dash = spec.indexOf('-', 1);
+            int from = year(dash < 0 ? spec : spec.substring(0, dash), spec);
+            int to = dash < 0 ? from : year(spec.substring(dash + 1), spec);
+            if (from > to) {
+                throw new IllegalArgumentException("年份范围起点大于终点: " + spec);
+            }
+            for (int year = from; year <= to; year++) {
+                years.add(year);
+            }
+        }
+
+        private static int year(String text, String spec) {
+            if (text.length() != 4 || !text.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                throw new IllegalArgumentException("无效的年份: " + spec);
+            }
+            return Integer.parseInt(text);
+        }
+    }
+
+}
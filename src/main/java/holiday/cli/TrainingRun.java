@@ -0,0 +1,179 @@
+package holiday.cli;
+
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import holiday.CrawlPipeline;
+import holiday.HolidaySpider;
+import holiday.HolidayYear;
+import holiday.factory.HttpServiceFactory;
+import holiday.service.HttpConfig;
+import holiday.service.HttpService;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 生成AppCDS归档用的训练运行
+ * <p>
+ * 在本地启动一个模拟搜索接口和详情页的替身服务, 用每种http实现各抓取一次,
+ * 再用{@link HolidaySpider#fetchHolidayYears}抓取并写出每种格式, 使实际运行时用到的类都被加载.
+ * 不访问网络, 输出写到临时目录后删除.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@UtilityClass
+class TrainingRun {
+
+    private static final int YEAR = 2024;
+
+    private static final String TITLE = "国务院办公厅关于" + YEAR + "年部分节假日安排的通知";
+
+    private static final String[] PAPER = {
+            "各省、自治区、直辖市人民政府，国务院各部委、各直属机构：",
+            "经国务院批准，现将2024年元旦、春节、清明节、劳动节、端午节、中秋节和国庆节放假调休日期的具体安排通知如下。",
+            "一、元旦：1月1日放假，与周末连休。",
+            "二、春节：2月10日至17日放假调休，共8天。2月4日（星期日）、2月18日（星期日）上班。",
+            "三、清明节：4月4日至6日放假调休，共3天。4月7日（星期日）上班。",
+            "四、劳动节：5月1日至5日放假调休，共5天。4月28日（星期日）、5月11日（星期六）上班。",
+            "五、端午节：6月10日放假，与周末连休。",
+            "六、中秋节：9月15日至17日放假调休，共3天。9月14日（星期六）上班。",
+            "七、国庆节：10月1日至7日放假调休，共7天。9月29日（星期日）、10月12日（星期六）上班。",
+            "国务院办公厅"
+    };
+
+    private static final String SEARCH_PATH = "/search-gov/data";
+
+    private static final String PAPER_PATH = "/zhengce/content/training.htm";
+
+    /**
+     * 执行训练运行
+     */
+    static void run() {
+        HttpServer server;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法启动替身服务", e);
+        }
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        byte[] search = search(baseUrl).getBytes(StandardCharsets.UTF_8);
+        byte[] paper = paper().getBytes(StandardCharsets.UTF_8);
+        server.createContext(SEARCH_PATH, exchange -> respond(exchange, "application/json; charset=UTF-8", search));
+        server.createContext(PAPER_PATH, exchange -> respond(exchange, "text/html; charset=UTF-8", paper));
+        server.start();
+
+        String searchUrl = System.getProperty(HolidaySpider.SEARCH_URL_PROPERTY);
+        System.setProperty(HolidaySpider.SEARCH_URL_PROPERTY, baseUrl + SEARCH_PATH);
+        Path output = null;
+        try {
+            List<Integer> years = Collections.singletonList(YEAR);
+            for (HttpConfig.Implementation implementation : HttpConfig.Implementation.values()) {
+                HttpService httpService = HttpServiceFactory.createHttpService(
+                        HttpConfig.fromSystemProperties().toBuilder().implementation(implementation).build());
+                try (CrawlPipeline pipeline = new CrawlPipeline(
+                        CrawlPipeline.Options.builder().httpService(httpService).build())) {
+                    check(pipeline.fetchAll(years));
+                }
+            }
+            List<HolidayYear> holidayYears = HolidaySpider.fetchHolidayYears(years);
+            check(holidayYears);
+
+            output = Files.createTempDirectory("holiday-training");
+            PrintStream discard = new PrintStream(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                }
+            }, false, "UTF-8");
+            for (HolidayCli.Format format : HolidayCli.Format.values()) {
+                HolidayCli.write(holidayYears, format, output, discard);
+                if (format != HolidayCli.Format.DB) {
+                    HolidayCli.write(holidayYears, format, null, discard);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (searchUrl == null) {
+                System.clearProperty(HolidaySpider.SEARCH_URL_PROPERTY);
+            } else {
+                System.setProperty(HolidaySpider.SEARCH_URL_PROPERTY, searchUrl);
+            }
+            server.stop(0);
+            delete(output);
+        }
+    }
+
+    private static void check(List<HolidayYear> years) {
+        if (years.size() != 1 || years.get(0).getDays().isEmpty()) {
+            throw new IllegalStateException("训练运行没有解析出假期安排");
+        }
+    }
+
+    /**
+     * 一页搜索结果, 结构与真实接口相同
+     */
+    private static String search(String baseUrl) {
+        JSONObject item = new JSONObject();
+        item.put("title", TITLE);
+        item.put("url", baseUrl + PAPER_PATH);
+        JSONArray listVO = new JSONArray();
+        listVO.add(item);
+        JSONObject searchVO = new JSONObject();
+        searchVO.put("totalpage", 1);
+        searchVO.put("listVO", listVO);
+        JSONObject body = new JSONObject();
+        body.put("code", 200);
+        body.put("msg", "操作成功");
+        body.put("searchVO", searchVO);
+        return body.toJSONString();
+    }
+
+    private static String paper() {
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>")
+                .append(TITLE).append("</title></head><body><div class=\"pages_content\" id=\"UCAP-CONTENT\">");
+        for (String line : PAPER) {
+            html.append("<p>").append(line).append("</p>\n");
+        }
+        return html.append("</div></body></html>").toString();
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void delete(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException ignored) {
+            // 临时目录, 删除失败不影响训练结果
+        }
+    }
+
+}
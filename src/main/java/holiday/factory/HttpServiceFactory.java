@@ -1,7 +1,17 @@
 package holiday.factory;
 
+import holiday.service.HttpConfig;
 import holiday.service.HttpService;
+import holiday.service.impl.CachingHttpService;
 import holiday.service.impl.HutoolHttpService;
+import holiday.service.impl.OkHttpService;
+import holiday.service.impl.RateLimitedHttpService;
+import holiday.service.impl.ReplayHttpService;
+import holiday.service.impl.ResilientHttpService;
+import holiday.service.impl.UrlConnectionHttpService;
+
+import java.nio.file.Paths;
+import java.time.Duration;
 
 /**
  * 2024/9/10
@@ -12,11 +22,62 @@ import holiday.service.impl.HutoolHttpService;
 public class HttpServiceFactory {
 
     /**
-     * 创建httpService
+     * 按系统属性创建的共享实例
+     */
+    private static volatile HttpService shared;
+
+    /**
+     * 获取共享的httpService
+     * <p>
+     * 首次调用时按系统属性({@link HttpConfig#fromSystemProperties()})创建, 之后复用同一个线程安全的实例及其连接池
      * @return HttpService
      */
     public static HttpService createHttpService() {
-        // 根据配置或环境条件选择实现
-        return new HutoolHttpService();
+        HttpService httpService = shared;
+        if (httpService == null) {
+            synchronized (HttpServiceFactory.class) {
+                httpService = shared;
+                if (httpService == null) {
+                    shared = httpService = createHttpService(HttpConfig.fromSystemProperties());
+                }
+            }
+        }
+        return httpService;
+    }
+
+    /**
+     * 按配置创建httpService, 调用方应复用返回的实例
+     * @param config 配置
+     * @return HttpService
+     */
+    public static HttpService createHttpService(HttpConfig config) {
+        boolean replay = config.getReplayDir() != null && !config.getReplayDir().isEmpty();
+        if (replay && !config.isReplayRecord()) {
+            return new ReplayHttpService(Paths.get(config.getReplayDir()));
+        }
+        HttpService httpService;
+        switch (config.getImplementation()) {
+            case OKHTTP:
+                httpService = new OkHttpService(config);
+                break;
+            case URL_CONNECTION:
+                httpService = new UrlConnectionHttpService(config);
+                break;
+            case HUTOOL:
+            default:
+                httpService = new HutoolHttpService(config);
+        }
+        if (config.getRequestsPerSecondPerHost() > 0) {
+            httpService = new RateLimitedHttpService(httpService, config.getRequestsPerSecondPerHost());
+        }
+        httpService = new ResilientHttpService(httpService, config);
+        if (config.getCacheDir() != null && !config.getCacheDir().isEmpty()) {
+            httpService = new CachingHttpService(httpService, Paths.get(config.getCacheDir()),
+                    Duration.ofSeconds(config.getCacheFreshSeconds()), config.getCacheAlwaysRevalidate());
+        }
+        if (replay) {
+            httpService = ReplayHttpService.recording(httpService, Paths.get(config.getReplayDir()));
+        }
+        return httpService;
     }
 }
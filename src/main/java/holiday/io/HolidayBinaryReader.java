@@ -0,0 +1,151 @@
+package holiday.io;
+
+import holiday.HolidayDay;
+import holiday.HolidayNames;
+import holiday.HolidayYear;
+import holiday.util.DateUtil;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 读取{@link HolidayBinaryWriter}写出的二进制格式
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class HolidayBinaryReader implements Closeable {
+
+    private final DataInputStream in;
+
+    /**
+     * 流内序号到名称id
+     */
+    private int[] nameIds = new int[16];
+
+    private int nameCount;
+
+    private boolean ended;
+
+    /**
+     * 构造函数, 立即读取并校验文件头
+     *
+     * @param in 输入流, 内部带缓冲
+     * @throws IOException 读取失败或不是此格式
+     */
+    public HolidayBinaryReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 8192));
+        byte[] magic = new byte[HolidayBinaryWriter.MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(magic, HolidayBinaryWriter.MAGIC)) {
+            throw new IOException("不是假期安排二进制格式");
+        }
+        int version = this.in.readUnsignedByte();
+        if (version != HolidayBinaryWriter.VERSION) {
+            throw new IOException("不支持的版本: " + version);
+        }
+    }
+
+    /**
+     * 读取下一年
+     *
+     * @return 假期安排, 没有更多数据时为null
+     * @throws IOException 读取失败或格式错误
+     */
+    public HolidayYear next() throws IOException {
+        if (ended) {
+            return null;
+        }
+        int tag = in.read();
+        if (tag < 0 || tag == HolidayBinaryWriter.END) {
+            ended = true;
+            return null;
+        }
+        if (tag != HolidayBinaryWriter.YEAR) {
+            throw new IOException("格式错误, 期望年份记录: " + tag);
+        }
+        int year = readVarInt();
+        int previousDay = DateUtil.toEpochDay(year, 1, 1);
+        List<HolidayDay> days = new ArrayList<>();
+        while (true) {
+            tag = in.readUnsignedByte();
+            if (tag == HolidayBinaryWriter.END_YEAR) {
+                break;
+            }
+            if (tag != HolidayBinaryWriter.DAY) {
+                throw new IOException("格式错误, 期望日期记录: " + tag);
+            }
+            int nameId = readName();
+            int packed = readVarInt();
+            int zigzag = packed >>> 1;
+            previousDay += (zigzag >>> 1) ^ -(zigzag & 1);
+            days.add(HolidayDay.of(nameId, previousDay, (packed & 1) == 1));
+        }
+        int paperCount = readVarInt();
+        List<String> papers = new ArrayList<>(paperCount);
+        for (int i = 0; i < paperCount; i++) {
+            papers.add(in.readUTF());
+        }
+        return new HolidayYear(year, papers, days);
+    }
+
+    /**
+     * 读取剩余的所有年份
+     *
+     * @return 假期安排
+     * @throws IOException 读取失败或格式错误
+     */
+    public List<HolidayYear> readAll() throws IOException {
+        List<HolidayYear> years = new ArrayList<>();
+        HolidayYear year;
+        while ((year = next()) != null) {
+            years.add(year);
+        }
+        return years;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int readName() throws IOException {
+        int ref = readVarInt();
+        if (ref < nameCount) {
+            return nameIds[ref];
+        }
+        if (ref != nameCount) {
+            throw new IOException("格式错误, 名称序号: " + ref);
+        }
+        if (nameCount == nameIds.length) {
+            nameIds = Arrays.copyOf(nameIds, nameCount << 1);
+        }
+        int nameId = HolidayNames.idOf(in.readUTF());
+        nameIds[nameCount++] = nameId;
+        return nameId;
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("格式错误, varint过长");
+    }
+
+}
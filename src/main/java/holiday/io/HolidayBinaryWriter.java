@@ -0,0 +1,216 @@
+package holiday.io;
+
+import holiday.HolidayDay;
+import holiday.HolidayNames;
+import holiday.HolidayYear;
+import holiday.util.DateUtil;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 流式输出假期安排的紧凑二进制格式, 用于服务间传输, 由{@link HolidayBinaryReader}读取
+ * <p>
+ * 格式: 魔数"HDAY", 版本(1字节), 之后是若干记录, 以{@link #END}结束:
+ * <ul>
+ *     <li>{@link #YEAR}: 年份(varint)</li>
+ *     <li>{@link #DAY}: 名称序号(varint, 等于已出现名称数时紧跟UTF名称),
+ *     与上一天的差(zigzag varint)左移一位并以最低位表示是否休息</li>
+ *     <li>{@link #END_YEAR}: 政策文件数(varint), 每个url为UTF</li>
+ * </ul>
+ * 每年的第一天与该年1月1日相比. 一天通常只占3字节.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class HolidayBinaryWriter implements Closeable, Flushable {
+
+    static final byte[] MAGIC = {'H', 'D', 'A', 'Y'};
+
+    static final int VERSION = 1;
+
+    static final int END = 0;
+
+    static final int YEAR = 1;
+
+    static final int DAY = 2;
+
+    static final int END_YEAR = 3;
+
+    private final DataOutputStream out;
+
+    /**
+     * 名称id到流内序号(从1开始, 0为未出现)
+     */
+    private int[] nameRefs = new int[16];
+
+    private int nameCount;
+
+    private boolean inYear;
+
+    private int previousDay;
+
+    private boolean ended;
+
+    /**
+     * 构造函数, 立即写出文件头
+     *
+     * @param out 输出流, 内部带缓冲
+     */
+    public HolidayBinaryWriter(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 8192));
+        try {
+            this.out.write(MAGIC);
+            this.out.writeByte(VERSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 开始一年
+     *
+     * @param year 年份
+     * @return this
+     */
+    public HolidayBinaryWriter beginYear(int year) {
+        if (inYear || ended) {
+            throw new IllegalStateException("不能在此处开始一年");
+        }
+        inYear = true;
+        previousDay = DateUtil.toEpochDay(year, 1, 1);
+        try {
+            out.writeByte(YEAR);
+            writeVarInt(year);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * 写出一天
+     *
+     * @param day day
+     * @return this
+     */
+    public HolidayBinaryWriter day(HolidayDay day) {
+        if (!inYear) {
+            throw new IllegalStateException("还未开始一年");
+        }
+        try {
+            out.writeByte(DAY);
+            int nameId = day.getNameId();
+            if (nameId >= nameRefs.length) {
+                nameRefs = Arrays.copyOf(nameRefs, Math.max(nameId + 1, nameRefs.length << 1));
+            }
+            if (nameRefs[nameId] == 0) {
+                nameRefs[nameId] = ++nameCount;
+                writeVarInt(nameCount - 1);
+                out.writeUTF(HolidayNames.nameOf(nameId));
+            } else {
+                writeVarInt(nameRefs[nameId] - 1);
+            }
+            int delta = day.getEpochDay() - previousDay;
+            previousDay = day.getEpochDay();
+            writeVarInt((((delta << 1) ^ (delta >> 31)) << 1) | (day.isOffDay() ? 1 : 0));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * 结束一年
+     *
+     * @param papers 政策文件url
+     * @return this
+     */
+    public HolidayBinaryWriter endYear(List<String> papers) {
+        if (!inYear) {
+            throw new IllegalStateException("还未开始一年");
+        }
+        inYear = false;
+        try {
+            out.writeByte(END_YEAR);
+            writeVarInt(papers.size());
+            for (String paper : papers) {
+                out.writeUTF(paper);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * 写出完整的一年
+     *
+     * @param year 假期安排
+     * @return this
+     */
+    public HolidayBinaryWriter write(HolidayYear year) {
+        beginYear(year.getYear());
+        for (HolidayDay day : year.getDays()) {
+            day(day);
+        }
+        return endYear(year.getPapers());
+    }
+
+    /**
+     * 写出结束标记, 之后不能再写入
+     *
+     * @return this
+     */
+    public HolidayBinaryWriter end() {
+        if (inYear) {
+            throw new IllegalStateException("当前年份还未结束");
+        }
+        if (!ended) {
+            ended = true;
+            try {
+                out.writeByte(END);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 写出结束标记并关闭
+     */
+    @Override
+    public void close() throws IOException {
+        if (!inYear) {
+            end();
+        }
+        out.close();
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+}
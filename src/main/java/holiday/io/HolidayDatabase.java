@@ -0,0 +1,262 @@
+package holiday.io;
+
+import holiday.util.DateUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static holiday.io.HolidayDatabaseWriter.ADJUSTED_WORKDAYS;
+import static holiday.io.HolidayDatabaseWriter.HEADER_SIZE;
+import static holiday.io.HolidayDatabaseWriter.HOLIDAYS;
+import static holiday.io.HolidayDatabaseWriter.MAGIC;
+import static holiday.io.HolidayDatabaseWriter.NAMES;
+import static holiday.io.HolidayDatabaseWriter.OFF_DAYS;
+import static holiday.io.HolidayDatabaseWriter.VERSION;
+import static holiday.io.HolidayDatabaseWriter.YEAR_ENTRY_SIZE;
+
+/**
+ * 内存映射的假期数据库, 读取{@link HolidayDatabaseWriter}写出的文件
+ * <p>
+ * 打开时只校验文件头, 查询直接读取映射的页面, 不复制也不反序列化.
+ * 同一台机器上的多个进程共享操作系统的页缓存. 覆盖范围以外的日期按周末休息处理.
+ * 实例不可变, 可以在多个线程间共享.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public final class HolidayDatabase {
+
+    private final ByteBuffer buffer;
+
+    private final int yearCount;
+
+    private final int nameCount;
+
+    private final int stringTableOffset;
+
+    private HolidayDatabase(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("不是假期数据库文件");
+        }
+        int version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("不支持的数据库版本: " + version);
+        }
+        this.buffer = buffer;
+        this.yearCount = buffer.getInt(8);
+        this.nameCount = buffer.getInt(12);
+        this.stringTableOffset = buffer.getInt(16);
+    }
+
+    /**
+     * 以只读方式映射数据库文件, 映射建立后文件即可被替换
+     *
+     * @param file 数据库文件
+     * @return 数据库
+     */
+    public static HolidayDatabase open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new HolidayDatabase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法打开数据库: " + file, e);
+        }
+    }
+
+    /**
+     * 读取内存中的数据库内容, 如{@link HolidayDatabaseWriter#compile(Iterable)}的结果
+     *
+     * @param buffer 数据库内容, 从0开始
+     * @return 数据库
+     */
+    public static HolidayDatabase wrap(ByteBuffer buffer) {
+        return new HolidayDatabase(buffer.duplicate());
+    }
+
+    /**
+     * 覆盖的第一年, 没有任何数据时为0
+     */
+    public int getFirstYear() {
+        return yearCount == 0 ? 0 : buffer.getInt(HEADER_SIZE);
+    }
+
+    /**
+     * 覆盖的最后一年, 没有任何数据时为-1
+     */
+    public int getLastYear() {
+        return yearCount == 0 ? -1 : buffer.getInt(HEADER_SIZE + (yearCount - 1) * YEAR_ENTRY_SIZE);
+    }
+
+    /**
+     * 是否覆盖该年
+     *
+     * @param year 年份
+     * @return 是否覆盖
+     */
+    public boolean containsYear(int year) {
+        return findYear(year) >= 0;
+    }
+
+    /**
+     * 是否为休息日
+     *
+     * @param epochDay epoch-day
+     * @return 是否为休息日
+     */
+    public boolean isOffDay(int epochDay) {
+        int entry = entryOf(epochDay);
+        return entry < 0 ? DateUtil.isWeekend(epochDay) : get(entry, OFF_DAYS, epochDay);
+    }
+
+    public boolean isOffDay(LocalDate date) {
+        return isOffDay((int) date.toEpochDay());
+    }
+
+    /**
+     * 是否为工作日
+     *
+     * @param epochDay epoch-day
+     * @return 是否为工作日
+     */
+    public boolean isWorkday(int epochDay) {
+        return !isOffDay(epochDay);
+    }
+
+    public boolean isWorkday(LocalDate date) {
+        return !isOffDay(date);
+    }
+
+    /**
+     * 是否为放假的节假日(不含普通周末)
+     *
+     * @param epochDay epoch-day
+     * @return 是否为节假日
+     */
+    public boolean isHoliday(int epochDay) {
+        int entry = entryOf(epochDay);
+        return entry >= 0 && get(entry, HOLIDAYS, epochDay);
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        return isHoliday((int) date.toEpochDay());
+    }
+
+    /**
+     * 是否为调休上班的周末
+     *
+     * @param epochDay epoch-day
+     * @return 是否为调休上班日
+     */
+    public boolean isAdjustedWorkday(int epochDay) {
+        int entry = entryOf(epochDay);
+        return entry >= 0 && get(entry, ADJUSTED_WORKDAYS, epochDay);
+    }
+
+    public boolean isAdjustedWorkday(LocalDate date) {
+        return isAdjustedWorkday((int) date.toEpochDay());
+    }
+
+    /**
+     * 当天安排的名称序号, 可用{@link #getName(int)}取得名称
+     *
+     * @param epochDay epoch-day
+     * @return 名称序号(从1开始), 没有安排时为0
+     */
+    public int nameRefOf(int epochDay) {
+        int entry = entryOf(epochDay);
+        if (entry < 0) {
+            return 0;
+        }
+        int bit = epochDay - buffer.getInt(entry + 4);
+        return buffer.getShort(buffer.getInt(entry + 8) + NAMES + bit * 2) & 0xFFFF;
+    }
+
+    /**
+     * 当天安排的名称
+     *
+     * @param epochDay epoch-day
+     * @return 名称, 没有安排时为null
+     */
+    public String nameOf(int epochDay) {
+        int ref = nameRefOf(epochDay);
+        return ref == 0 ? null : getName(ref);
+    }
+
+    public String nameOf(LocalDate date) {
+        return nameOf((int) date.toEpochDay());
+    }
+
+    /**
+     * 名称数
+     *
+     * @return 名称数
+     */
+    public int getNameCount() {
+        return nameCount;
+    }
+
+    /**
+     * 从名称表中解码名称
+     *
+     * @param ref 名称序号, 从1开始
+     * @return 名称
+     */
+    public String getName(int ref) {
+        if (ref < 1 || ref > nameCount) {
+            throw new IndexOutOfBoundsException("名称序号: " + ref);
+        }
+        int offset = buffer.getInt(stringTableOffset + (ref - 1) * 4);
+        int length = buffer.getShort(offset) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 日期所在年的年份表项偏移, 不在覆盖范围内时为-1
+     */
+    private int entryOf(int epochDay) {
+        return findYear(DateUtil.yearOf(epochDay));
+    }
+
+    /**
+     * 二分查找年份表
+     *
+     * @return 年份表项的偏移, 不存在时为-1
+     */
+    private int findYear(int year) {
+        int low = 0;
+        int high = yearCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = HEADER_SIZE + middle * YEAR_ENTRY_SIZE;
+            int value = buffer.getInt(entry);
+            if (value < year) {
+                low = middle + 1;
+            } else if (value > year) {
+                high = middle - 1;
+            } else {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 读取年份表项对应数据块中的位图
+     */
+    private boolean get(int entry, int bitmap, int epochDay) {
+        int bit = epochDay - buffer.getInt(entry + 4);
+        int offset = buffer.getInt(entry + 8) + bitmap + (bit >>> 6) * 8;
+        return (buffer.getLong(offset) & (1L << bit)) != 0;
+    }
+
+}
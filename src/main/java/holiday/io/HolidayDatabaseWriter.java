@@ -0,0 +1,201 @@
+package holiday.io;
+
+import holiday.HolidayDay;
+import holiday.HolidayYear;
+import holiday.util.DateUtil;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 把假期安排编译为{@link HolidayDatabase}读取的二进制数据库文件
+ * <p>
+ * 格式(大端序):
+ * <ul>
+ *     <li>文件头(24字节): 魔数"HDDB", 版本(2字节), 保留(2字节), 年数, 名称数, 名称表偏移, 保留(4字节)</li>
+ *     <li>年份表: 每年16字节, 按年份升序: 年份, 1月1日的epoch-day, 数据块偏移, 保留</li>
+ *     <li>每年的数据块: 休息日、节假日、调休上班日三个位图(各6个long), 每天的名称序号(366个short, 0为没有安排)</li>
+ *     <li>名称表: 每个名称的偏移(int), 之后是各名称(2字节长度 + UTF-8)</li>
+ * </ul>
+ * 同一日期有多条安排时以后出现的为准, 与{@link holiday.HolidayCalendar}相同, 跨年的日期覆盖其所在的年; 所在的年不在输入中的日期不写入, 与{@link holiday.server.HolidayIndex}相同.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@UtilityClass
+public class HolidayDatabaseWriter {
+
+    static final int MAGIC = 'H' << 24 | 'D' << 16 | 'D' << 8 | 'B';
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 24;
+
+    static final int YEAR_ENTRY_SIZE = 16;
+
+    static final int WORDS_PER_YEAR = 6;
+
+    static final int DAYS_PER_YEAR = 366;
+
+    /**
+     * 位图在数据块中的偏移
+     */
+    static final int OFF_DAYS = 0;
+
+    static final int HOLIDAYS = WORDS_PER_YEAR * 8;
+
+    static final int ADJUSTED_WORKDAYS = WORDS_PER_YEAR * 8 * 2;
+
+    /**
+     * 名称序号在数据块中的偏移
+     */
+    static final int NAMES = WORDS_PER_YEAR * 8 * 3;
+
+    static final int BLOCK_SIZE = NAMES + DAYS_PER_YEAR * 2;
+
+    /**
+     * 编译并写入文件, 先写临时文件再原子替换, 已映射旧文件的进程不受影响
+     *
+     * @param years 假期安排, 同一年出现多次时以后出现的为准
+     * @param file 数据库文件
+     */
+    public static void write(Iterable<HolidayYear> years, Path file) {
+        byte[] bytes = compile(years);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法写入数据库: " + file, e);
+        }
+    }
+
+    /**
+     * 编译为数据库文件内容
+     *
+     * @param years 假期安排, 同一年出现多次时以后出现的为准
+     * @return 文件内容
+     */
+    public static byte[] compile(Iterable<HolidayYear> years) {
+        TreeMap<Integer, HolidayYear> byYear = new TreeMap<>();
+        for (HolidayYear year : years) {
+            byYear.put(year.getYear(), year);
+        }
+        // 按日期所在的年分组, 跨年的日期(如上一年年底的调休)也覆盖其所在的年;
+        // 所在的年没有输入时不保留(如只编译2019年时不为2019年通知中的2018-12-30生成2018年的数据块)
+        TreeMap<Integer, List<HolidayDay>> daysByYear = new TreeMap<>();
+        List<String> names = new ArrayList<>();
+        Map<String, Integer> nameRefs = new HashMap<>();
+        List<byte[]> encodedNames = new ArrayList<>();
+        for (HolidayYear year : byYear.values()) {
+            daysByYear.computeIfAbsent(year.getYear(), key -> new ArrayList<>());
+            for (HolidayDay day : year.getDays()) {
+                int dayYear = DateUtil.yearOf(day.getEpochDay());
+                if (!byYear.containsKey(dayYear)) {
+                    continue;
+                }
+                daysByYear.computeIfAbsent(dayYear, key -> new ArrayList<>()).add(day);
+                if (!nameRefs.containsKey(day.getName())) {
+                    nameRefs.put(day.getName(), names.size() + 1);
+                    names.add(day.getName());
+                    encodedNames.add(day.getName().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        int yearCount = daysByYear.size();
+        int blocksOffset = HEADER_SIZE + yearCount * YEAR_ENTRY_SIZE;
+        int stringTableOffset = blocksOffset + yearCount * BLOCK_SIZE;
+        int size = stringTableOffset + names.size() * 4;
+        for (byte[] name : encodedNames) {
+            size += 2 + name.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC)
+                .putShort((short) VERSION)
+                .putShort((short) 0)
+                .putInt(yearCount)
+                .putInt(names.size())
+                .putInt(stringTableOffset)
+                .putInt(0);
+
+        int index = 0;
+        for (Map.Entry<Integer, List<HolidayDay>> entry : daysByYear.entrySet()) {
+            int year = entry.getKey();
+            int blockOffset = blocksOffset + index * BLOCK_SIZE;
+            int firstDay = DateUtil.toEpochDay(year, 1, 1);
+            buffer.position(HEADER_SIZE + index * YEAR_ENTRY_SIZE);
+            buffer.putInt(year).putInt(firstDay).putInt(blockOffset).putInt(0);
+            writeBlock(buffer, blockOffset, year, entry.getValue(), firstDay, nameRefs);
+            index++;
+        }
+
+        buffer.position(stringTableOffset);
+        int nameOffset = stringTableOffset + names.size() * 4;
+        for (byte[] name : encodedNames) {
+            buffer.putInt(nameOffset);
+            nameOffset += 2 + name.length;
+        }
+        for (byte[] name : encodedNames) {
+            buffer.putShort((short) name.length).put(name);
+        }
+        return buffer.array();
+    }
+
+    private static void writeBlock(ByteBuffer buffer, int blockOffset, int year, List<HolidayDay> days, int firstDay,
+                                   Map<String, Integer> nameRefs) {
+        long[] offDays = new long[WORDS_PER_YEAR];
+        long[] holidays = new long[WORDS_PER_YEAR];
+        long[] adjustedWorkdays = new long[WORDS_PER_YEAR];
+        short[] dayNames = new short[DAYS_PER_YEAR];
+        int length = DateUtil.isLeapYear(year) ? 366 : 365;
+        for (HolidayDay day : days) {
+            int bit = day.getEpochDay() - firstDay;
+            long mask = 1L << bit;
+            if (day.isOffDay()) {
+                holidays[bit >>> 6] |= mask;
+                adjustedWorkdays[bit >>> 6] &= ~mask;
+            } else {
+                adjustedWorkdays[bit >>> 6] |= mask;
+                holidays[bit >>> 6] &= ~mask;
+            }
+            dayNames[bit] = (short) (int) nameRefs.get(day.getName());
+        }
+        for (int bit = 0; bit < length; bit++) {
+            long mask = 1L << bit;
+            boolean holiday = (holidays[bit >>> 6] & mask) != 0;
+            boolean adjusted = (adjustedWorkdays[bit >>> 6] & mask) != 0;
+            if (holiday || (DateUtil.isWeekend(firstDay + bit) && !adjusted)) {
+                offDays[bit >>> 6] |= mask;
+            }
+        }
+        buffer.position(blockOffset);
+        for (long word : offDays) {
+            buffer.putLong(word);
+        }
+        for (long word : holidays) {
+            buffer.putLong(word);
+        }
+        for (long word : adjustedWorkdays) {
+            buffer.putLong(word);
+        }
+        for (short name : dayNames) {
+            buffer.putShort(name);
+        }
+    }
+
+}
@@ -0,0 +1,324 @@
+package holiday.io;
+
+import holiday.HolidayDay;
+import holiday.HolidayNames;
+import holiday.HolidayYear;
+import holiday.util.DateUtil;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 流式输出假期安排JSON
+ * <p>
+ * 边产出边写出, 不构建整棵对象树. 输出与{@code JSON.toJSONString(HolidayYear)}相同:
+ * {@code {"year":2024,"days":[{"date":"2024-01-01","isOffDay":true,"name":"元旦"}],"papers":["url"]}}.
+ * 多年输出时可用{@link #beginArray()}/{@link #endArray()}包成数组.
+ * <pre>
+ * writer.beginYear(2024);
+ * days.forEach(writer::day);
+ * writer.endYear(papers);
+ * </pre>
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class HolidayJsonWriter implements Closeable, Flushable {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer writer;
+
+    /**
+     * 输出缓冲, 满时写入writer
+     */
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int position;
+
+    /**
+     * 按名称id缓存转义后的名称
+     */
+    private String[] escapedNames = new String[16];
+
+    private boolean inArray;
+
+    private int yearsInArray;
+
+    private boolean inYear;
+
+    private int daysInYear;
+
+    /**
+     * 写出到OutputStream(UTF-8)
+     *
+     * @param out 输出流
+     */
+    public HolidayJsonWriter(OutputStream out) {
+        this(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 写出到Writer, 内部带缓冲, 调用{@link #flush()}或{@link #close()}后才保证写入
+     *
+     * @param writer writer
+     */
+    public HolidayJsonWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * 开始数组, 之后的每一年为数组的一个元素
+     *
+     * @return this
+     */
+    public HolidayJsonWriter beginArray() {
+        if (inArray || inYear) {
+            throw new IllegalStateException("不能在此处开始数组");
+        }
+        inArray = true;
+        yearsInArray = 0;
+        return append('[');
+    }
+
+    /**
+     * 结束数组
+     *
+     * @return this
+     */
+    public HolidayJsonWriter endArray() {
+        if (!inArray || inYear) {
+            throw new IllegalStateException("没有可结束的数组");
+        }
+        inArray = false;
+        return append(']');
+    }
+
+    /**
+     * 开始一年
+     *
+     * @param year 年份
+     * @return this
+     */
+    public HolidayJsonWriter beginYear(int year) {
+        if (inYear) {
+            throw new IllegalStateException("上一年还未结束");
+        }
+        if (inArray && yearsInArray++ > 0) {
+            append(',');
+        }
+        inYear = true;
+        daysInYear = 0;
+        return append("{\"year\":").append(Integer.toString(year)).append(",\"days\":[");
+    }
+
+    /**
+     * 写出一天
+     *
+     * @param day day
+     * @return this
+     */
+    public HolidayJsonWriter day(HolidayDay day) {
+        if (!inYear) {
+            throw new IllegalStateException("还未开始一年");
+        }
+        if (daysInYear++ > 0) {
+            append(',');
+        }
+        int epochDay = day.getEpochDay();
+        append("{\"date\":\"");
+        appendDate(DateUtil.yearOf(epochDay), DateUtil.monthOf(epochDay), DateUtil.dayOfMonthOf(epochDay));
+        append(day.isOffDay() ? "\",\"isOffDay\":true,\"name\":" : "\",\"isOffDay\":false,\"name\":");
+        append(escapedName(day.getNameId()));
+        return append('}');
+    }
+
+    /**
+     * 结束一年
+     *
+     * @param papers 政策文件url
+     * @return this
+     */
+    public HolidayJsonWriter endYear(List<String> papers) {
+        if (!inYear) {
+            throw new IllegalStateException("还未开始一年");
+        }
+        inYear = false;
+        append("],\"papers\":[");
+        for (int i = 0; i < papers.size(); i++) {
+            if (i > 0) {
+                append(',');
+            }
+            appendString(papers.get(i));
+        }
+        return append("]}");
+    }
+
+    /**
+     * 写出完整的一年
+     *
+     * @param year 假期安排
+     * @return this
+     */
+    public HolidayJsonWriter write(HolidayYear year) {
+        beginYear(year.getYear());
+        for (HolidayDay day : year.getDays()) {
+            day(day);
+        }
+        return endYear(year.getPapers());
+    }
+
+    @Override
+    public void flush() {
+        try {
+            flushBuffer();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushBuffer();
+        writer.close();
+    }
+
+    private String escapedName(int nameId) {
+        if (nameId >= escapedNames.length) {
+            escapedNames = Arrays.copyOf(escapedNames, Math.max(nameId + 1, escapedNames.length << 1));
+        }
+        String escaped = escapedNames[nameId];
+        if (escaped == null) {
+            StringBuilder sb = new StringBuilder();
+            escape(sb, HolidayNames.nameOf(nameId));
+            escaped = escapedNames[nameId] = sb.toString();
+        }
+        return escaped;
+    }
+
+    /**
+     * 写出yyyy-MM-dd
+     */
+    private void appendDate(int year, int month, int dayOfMonth) {
+        ensure(10);
+        char[] b = buffer;
+        int p = position;
+        b[p] = (char) ('0' + year / 1000 % 10);
+        b[p + 1] = (char) ('0' + year / 100 % 10);
+        b[p + 2] = (char) ('0' + year / 10 % 10);
+        b[p + 3] = (char) ('0' + year % 10);
+        b[p + 4] = '-';
+        b[p + 5] = (char) ('0' + month / 10);
+        b[p + 6] = (char) ('0' + month % 10);
+        b[p + 7] = '-';
+        b[p + 8] = (char) ('0' + dayOfMonth / 10);
+        b[p + 9] = (char) ('0' + dayOfMonth % 10);
+        position = p + 10;
+    }
+
+    private void appendString(String value) {
+        if (value == null) {
+            append("null");
+            return;
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        escape(sb, value);
+        append(sb.toString());
+    }
+
+    /**
+     * 转义为JSON字符串(含引号), 非ASCII字符原样输出
+     */
+    private static void escape(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\b':
+                    sb.append("\\b");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    private HolidayJsonWriter append(char c) {
+        ensure(1);
+        buffer[position++] = c;
+        return this;
+    }
+
+    private HolidayJsonWriter append(String s) {
+        int length = s.length();
+        if (length > BUFFER_SIZE) {
+            try {
+                flushBuffer();
+                writer.write(s);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+        ensure(length);
+        s.getChars(0, length, buffer, position);
+        position += length;
+        return this;
+    }
+
+    /**
+     * 保证缓冲有n个空位
+     */
+    private void ensure(int n) {
+        if (position + n > BUFFER_SIZE) {
+            try {
+                flushBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            writer.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package holiday.metrics;
+
+/**
+ * 计数项
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public enum Counter {
+
+    /**
+     * 响应体解压并转为UTF-8后的字节数, 不是网络上收到的字节数
+     */
+    BODY_BYTES,
+
+    /**
+     * 识别出的普通规则
+     */
+    NORMAL_RULES,
+
+    /**
+     * 识别出的补充规则
+     */
+    PATCH_RULES,
+
+    /**
+     * 解析的句子
+     */
+    SENTENCES,
+
+    /**
+     * 没有产出任何日期的句子
+     */
+    EMPTY_SENTENCES,
+
+    /**
+     * 政策文件解析结果命中缓存
+     */
+    PAPER_CACHE_HITS,
+
+    /**
+     * 政策文件解析结果未命中缓存, 实际解析
+     */
+    PAPER_CACHE_MISSES
+}
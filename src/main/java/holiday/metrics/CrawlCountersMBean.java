@@ -0,0 +1,28 @@
+package holiday.metrics;
+
+/**
+ * 计数的JMX接口
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public interface CrawlCountersMBean {
+
+    long getBodyBytes();
+
+    long getNormalRules();
+
+    long getPatchRules();
+
+    long getSentences();
+
+    long getEmptySentences();
+
+    long getPaperCacheHits();
+
+    long getPaperCacheMisses();
+
+    void reset();
+
+}
@@ -0,0 +1,136 @@
+package holiday.metrics;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 抓取和解析的指标入口
+ * <p>
+ * 没有注册监听器时不读取时钟, 埋点只有一次数组长度判断.
+ * <pre>
+ * long start = CrawlMetrics.start();
+ * ...
+ * CrawlMetrics.record(Stage.GET_RULES, start);
+ * </pre>
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@UtilityClass
+public class CrawlMetrics {
+
+    private static volatile MetricsListener[] listeners = new MetricsListener[0];
+
+    private static StatsListener jmxListener;
+
+    /**
+     * 注册监听器
+     *
+     * @param listener 监听器
+     */
+    public static synchronized void addListener(MetricsListener listener) {
+        MetricsListener[] current = listeners;
+        MetricsListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * 移除监听器
+     *
+     * @param listener 监听器
+     */
+    public static synchronized void removeListener(MetricsListener listener) {
+        List<MetricsListener> updated = new ArrayList<>(Arrays.asList(listeners));
+        updated.remove(listener);
+        listeners = updated.toArray(new MetricsListener[0]);
+    }
+
+    /**
+     * 汇总指标并注册到平台MBeanServer, 重复调用返回同一个实例
+     * <ul>
+     *     <li>{@code holiday:type=Stage,name=<阶段>}: 各阶段耗时, 见{@link HistogramMBean}</li>
+     *     <li>{@code holiday:type=Counters}: 计数, 见{@link CrawlCountersMBean}</li>
+     * </ul>
+     *
+     * @return 汇总的指标
+     */
+    public static synchronized StatsListener enableJmx() {
+        if (jmxListener == null) {
+            StatsListener stats = new StatsListener();
+            stats.registerMBeans();
+            addListener(stats);
+            jmxListener = stats;
+        }
+        return jmxListener;
+    }
+
+    /**
+     * 是否有监听器
+     *
+     * @return 是否有监听器
+     */
+    public static boolean isEnabled() {
+        return listeners.length > 0;
+    }
+
+    /**
+     * 阶段开始
+     *
+     * @return 开始时间, 没有监听器时为0
+     */
+    public static long start() {
+        return listeners.length == 0 ? 0 : System.nanoTime();
+    }
+
+    /**
+     * 距开始经过的时间
+     *
+     * @param start {@link #start()}的返回值
+     * @return 纳秒, 没有监听器时为0
+     */
+    public static long elapsed(long start) {
+        return start == 0 ? 0 : System.nanoTime() - start;
+    }
+
+    /**
+     * 阶段结束
+     *
+     * @param stage 阶段
+     * @param start {@link #start()}的返回值
+     */
+    public static void record(Stage stage, long start) {
+        if (start != 0) {
+            recordNanos(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 记录阶段耗时
+     *
+     * @param stage 阶段
+     * @param nanos 耗时(纳秒)
+     */
+    public static void recordNanos(Stage stage, long nanos) {
+        for (MetricsListener listener : listeners) {
+            listener.onStage(stage, nanos);
+        }
+    }
+
+    /**
+     * 增加计数
+     *
+     * @param counter 计数项
+     * @param delta 增量
+     */
+    public static void increment(Counter counter, long delta) {
+        for (MetricsListener listener : listeners) {
+            listener.onCount(counter, delta);
+        }
+    }
+
+}
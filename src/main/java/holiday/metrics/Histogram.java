@@ -0,0 +1,139 @@
+package holiday.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 耗时直方图
+ * <p>
+ * 每个2的幂区间分为4个桶, 分位数的相对误差不超过25%. 记录只做几次无锁累加, 可以在多个线程中同时调用.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class Histogram implements HistogramMBean {
+
+    /**
+     * 每个2的幂区间的桶数为2^SUB_BITS
+     */
+    private static final int SUB_BITS = 2;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一个值
+     *
+     * @param nanos 耗时(纳秒), 负数按0处理
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[bucketOf(value)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * 分位数
+     *
+     * @param quantile 0到1之间
+     * @return 耗时(纳秒), 所在桶的上界
+     */
+    public long quantileNanos(double quantile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getTotalMillis() {
+        return sum.sum() / 1_000_000;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long total = count.sum();
+        return total == 0 ? 0 : sum.sum() / 1000.0 / total;
+    }
+
+    @Override
+    public long getMaxMicros() {
+        return max.get() / 1000;
+    }
+
+    @Override
+    public long getP50Micros() {
+        return quantileNanos(0.5) / 1000;
+    }
+
+    @Override
+    public long getP95Micros() {
+        return quantileNanos(0.95) / 1000;
+    }
+
+    @Override
+    public long getP99Micros() {
+        return quantileNanos(0.99) / 1000;
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+
+}
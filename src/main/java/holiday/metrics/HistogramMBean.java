@@ -0,0 +1,28 @@
+package holiday.metrics;
+
+/**
+ * 阶段耗时的JMX接口
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public interface HistogramMBean {
+
+    long getCount();
+
+    long getTotalMillis();
+
+    double getMeanMicros();
+
+    long getMaxMicros();
+
+    long getP50Micros();
+
+    long getP95Micros();
+
+    long getP99Micros();
+
+    void reset();
+
+}
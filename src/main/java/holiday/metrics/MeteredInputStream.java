@@ -0,0 +1,60 @@
+package holiday.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 统计读取的字节数和阻塞在读取上的时间, 用于区分边下载边提取时的网络和解析耗时
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class MeteredInputStream extends FilterInputStream {
+
+    private long bytes;
+
+    private long readNanos;
+
+    public MeteredInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        long start = System.nanoTime();
+        int b = super.read();
+        readNanos += System.nanoTime() - start;
+        if (b >= 0) {
+            bytes++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        int n = super.read(b, off, len);
+        readNanos += System.nanoTime() - start;
+        if (n > 0) {
+            bytes += n;
+        }
+        return n;
+    }
+
+    /**
+     * 已读取的字节数
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * 阻塞在读取上的时间(纳秒)
+     */
+    public long getReadNanos() {
+        return readNanos;
+    }
+
+}
@@ -0,0 +1,32 @@
+package holiday.metrics;
+
+/**
+ * 指标监听器, 由{@link CrawlMetrics#addListener(MetricsListener)}注册
+ * <p>
+ * 在产生指标的线程中同步调用, 实现须线程安全且足够快
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public interface MetricsListener {
+
+    /**
+     * 一个阶段完成
+     *
+     * @param stage 阶段
+     * @param nanos 耗时(纳秒)
+     */
+    default void onStage(Stage stage, long nanos) {
+    }
+
+    /**
+     * 计数增加
+     *
+     * @param counter 计数项
+     * @param delta 增量
+     */
+    default void onCount(Counter counter, long delta) {
+    }
+
+}
@@ -0,0 +1,41 @@
+package holiday.metrics;
+
+/**
+ * 计时的抓取和解析阶段
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public enum Stage {
+
+    /**
+     * 请求一页搜索结果
+     */
+    SEARCH_PAGE,
+
+    /**
+     * 下载一个详情页(等待网络的时间)
+     */
+    PAPER_DOWNLOAD,
+
+    /**
+     * 从一个详情页提取政策文件主体
+     */
+    EXTRACT,
+
+    /**
+     * 从一个政策文件中识别规则
+     */
+    GET_RULES,
+
+    /**
+     * 解析一条规则的描述({@code DescriptionParser.parse})
+     */
+    DESCRIPTION_PARSE,
+
+    /**
+     * 序列化一年的JSON
+     */
+    JSON
+}
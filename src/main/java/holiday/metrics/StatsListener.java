@@ -0,0 +1,131 @@
+package holiday.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 汇总各阶段耗时直方图和计数
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class StatsListener implements MetricsListener, CrawlCountersMBean {
+
+    private final Map<Stage, Histogram> histograms = new EnumMap<>(Stage.class);
+
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+
+    public StatsListener() {
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new Histogram());
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void onStage(Stage stage, long nanos) {
+        histograms.get(stage).record(nanos);
+    }
+
+    @Override
+    public void onCount(Counter counter, long delta) {
+        counters[counter.ordinal()].add(delta);
+    }
+
+    /**
+     * 阶段耗时
+     *
+     * @param stage 阶段
+     * @return 直方图
+     */
+    public Histogram getHistogram(Stage stage) {
+        return histograms.get(stage);
+    }
+
+    /**
+     * 计数
+     *
+     * @param counter 计数项
+     * @return 计数
+     */
+    public long getCount(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    @Override
+    public long getBodyBytes() {
+        return getCount(Counter.BODY_BYTES);
+    }
+
+    @Override
+    public long getNormalRules() {
+        return getCount(Counter.NORMAL_RULES);
+    }
+
+    @Override
+    public long getPatchRules() {
+        return getCount(Counter.PATCH_RULES);
+    }
+
+    @Override
+    public long getSentences() {
+        return getCount(Counter.SENTENCES);
+    }
+
+    @Override
+    public long getEmptySentences() {
+        return getCount(Counter.EMPTY_SENTENCES);
+    }
+
+    @Override
+    public long getPaperCacheHits() {
+        return getCount(Counter.PAPER_CACHE_HITS);
+    }
+
+    @Override
+    public long getPaperCacheMisses() {
+        return getCount(Counter.PAPER_CACHE_MISSES);
+    }
+
+    @Override
+    public void reset() {
+        histograms.values().forEach(Histogram::reset);
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * 注册到平台MBeanServer, 已存在同名MBean时替换
+     */
+    void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (Map.Entry<Stage, Histogram> entry : histograms.entrySet()) {
+                String name = entry.getKey().name().toLowerCase(Locale.ROOT);
+                register(server, new ObjectName("holiday:type=Stage,name=" + name), entry.getValue());
+            }
+            register(server, new ObjectName("holiday:type=Counters"), new StandardMBean(this, CrawlCountersMBean.class));
+        } catch (JMException e) {
+            throw new IllegalStateException("无法注册MBean", e);
+        }
+    }
+
+    private static void register(MBeanServer server, ObjectName name, Object mbean) throws JMException {
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(mbean, name);
+    }
+
+}
@@ -0,0 +1,93 @@
+package holiday.rule;
+
+import holiday.DescriptionParser;
+import holiday.HolidayDay;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 基于预编译正则的放假安排规则
+ * <p>
+ * 句子包含任一关键字时才执行正则, 每次匹配按分组顺序提取日期.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Value
+@Builder
+public class PatternRestRule implements RestRule {
+
+    /**
+     * 句子规则
+     */
+    Pattern pattern;
+
+    /**
+     * 预过滤关键字, 句子须包含其一; 为空时不过滤
+     */
+    @Singular
+    List<String> keywords;
+
+    int priority;
+
+    boolean stopOnMatch;
+
+    /**
+     * 日期所在的分组
+     */
+    @Singular
+    List<DateGroup> groups;
+
+    @Override
+    public boolean mayMatch(String sentence) {
+        if (keywords.isEmpty()) {
+            return true;
+        }
+        for (String keyword : keywords) {
+            if (sentence.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean apply(DescriptionParser parent, String sentence, int nameId, Consumer<HolidayDay> consumer) {
+        Matcher matcher = pattern.matcher(sentence);
+        boolean matched = false;
+        while (matcher.find()) {
+            matched = true;
+            for (DateGroup group : groups) {
+                boolean offDay = group.isOffDay();
+                parent.extractDates(sentence, matcher.start(group.getGroup()), matcher.end(group.getGroup()),
+                        date -> consumer.accept(HolidayDay.of(nameId, date, offDay)));
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 日期分组
+     */
+    @Value(staticConstructor = "of")
+    public static class DateGroup {
+
+        /**
+         * 分组序号
+         */
+        int group;
+
+        /**
+         * 是否为休息日
+         */
+        boolean offDay;
+    }
+
+}
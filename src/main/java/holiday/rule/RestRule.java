@@ -0,0 +1,64 @@
+package holiday.rule;
+
+import holiday.DescriptionParser;
+import holiday.HolidayDay;
+
+import java.util.function.Consumer;
+
+/**
+ * 放假安排规则
+ * <p>
+ * 通过{@link RestRuleRegistry#register(RestRule)}登记,
+ * 或在META-INF/services/holiday.rule.RestRule中声明实现类由ServiceLoader加载.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public interface RestRule {
+
+    /**
+     * 优先级, 小的先执行
+     *
+     * @return 优先级
+     */
+    int getPriority();
+
+    /**
+     * 匹配后是否不再执行后续规则
+     *
+     * @return 是否停止
+     */
+    boolean isStopOnMatch();
+
+    /**
+     * 廉价的预过滤, 返回false时不执行{@link #apply}
+     *
+     * @param sentence 句子
+     * @return 是否可能匹配
+     */
+    boolean mayMatch(String sentence);
+
+    /**
+     * 解析句子
+     *
+     * @param parent 描述解析器, 用于提取日期
+     * @param sentence 句子
+     * @param nameId 节日名称id
+     * @param consumer 解析出的day
+     * @return 是否匹配
+     */
+    boolean apply(DescriptionParser parent, String sentence, int nameId, Consumer<HolidayDay> consumer);
+
+    /**
+     * 规则内容的摘要, 规则的行为改变时应随之改变, 用于判断缓存的解析结果是否仍然有效
+     * <p>
+     * 默认为类名和toString(); 没有覆盖toString的实现每次运行都不同, 其解析结果不会跨进程复用
+     *
+     * @return 摘要
+     */
+    default String fingerprint() {
+        return getClass().getName() + ":" + this;
+    }
+
+}
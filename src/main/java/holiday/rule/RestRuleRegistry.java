@@ -0,0 +1,168 @@
+package holiday.rule;
+
+import holiday.DescriptionParser;
+import holiday.HolidayDay;
+import holiday.util.CommonUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * 放假安排规则注册表
+ * <p>
+ * 按优先级依次执行规则, 预过滤不通过的规则跳过, 设置了stopOnMatch的规则匹配后不再执行后续规则.
+ * 优先级相同时按登记顺序执行.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class RestRuleRegistry {
+
+    /**
+     * 规则1: ...放假/补休/调休/公休(n天)
+     */
+    public static final RestRule REST = PatternRestRule.builder()
+            .pattern(Pattern.compile("(.+)(放假|补休|调休|公休)+(?:\\d+天)?$"))
+            .keyword("放假").keyword("补休").keyword("调休").keyword("公休")
+            .priority(100)
+            .group(PatternRestRule.DateGroup.of(1, true))
+            .build();
+
+    /**
+     * 规则2: ...上班
+     */
+    public static final RestRule WORK = PatternRestRule.builder()
+            .pattern(Pattern.compile("(.+)上班$"))
+            .keyword("上班")
+            .priority(200)
+            .group(PatternRestRule.DateGroup.of(1, false))
+            .build();
+
+    /**
+     * 规则3: ...调至...
+     */
+    public static final RestRule SWAP = PatternRestRule.builder()
+            .pattern(Pattern.compile("(.+)调至(.+)"))
+            .keyword("调至")
+            .priority(300)
+            .group(PatternRestRule.DateGroup.of(1, false))
+            .group(PatternRestRule.DateGroup.of(2, true))
+            .build();
+
+    private static volatile RestRuleRegistry defaultRegistry;
+
+    /**
+     * 按优先级排序的规则, 登记时整体替换
+     */
+    private volatile RestRule[] rules = new RestRule[0];
+
+    /**
+     * 当前规则的摘要, 登记或移除规则时清空
+     */
+    private volatile String fingerprint;
+
+    /**
+     * 默认注册表: 内置规则和ServiceLoader加载的规则
+     *
+     * @return 注册表
+     */
+    public static RestRuleRegistry getDefault() {
+        RestRuleRegistry registry = defaultRegistry;
+        if (registry == null) {
+            synchronized (RestRuleRegistry.class) {
+                registry = defaultRegistry;
+                if (registry == null) {
+                    registry = new RestRuleRegistry();
+                    registry.register(REST);
+                    registry.register(WORK);
+                    registry.register(SWAP);
+                    for (RestRule rule : ServiceLoader.load(RestRule.class)) {
+                        registry.register(rule);
+                    }
+                    defaultRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * 登记规则
+     *
+     * @param rule 规则
+     * @return this
+     */
+    public synchronized RestRuleRegistry register(RestRule rule) {
+        List<RestRule> list = new ArrayList<>(rules.length + 1);
+        for (RestRule existing : rules) {
+            list.add(existing);
+        }
+        list.add(rule);
+        // 稳定排序, 相同优先级保持登记顺序
+        list.sort(Comparator.comparingInt(RestRule::getPriority));
+        rules = list.toArray(new RestRule[0]);
+        fingerprint = null;
+        return this;
+    }
+
+    /**
+     * 移除规则
+     *
+     * @param rule 规则
+     * @return 是否移除
+     */
+    public synchronized boolean unregister(RestRule rule) {
+        List<RestRule> list = new ArrayList<>(rules.length);
+        boolean removed = false;
+        for (RestRule existing : rules) {
+            if (!removed && existing.equals(rule)) {
+                removed = true;
+            } else {
+                list.add(existing);
+            }
+        }
+        rules = list.toArray(new RestRule[0]);
+        fingerprint = null;
+        return removed;
+    }
+
+    /**
+     * 按执行顺序汇总各规则的{@link RestRule#fingerprint()}, 规则集合或顺序改变时随之改变
+     *
+     * @return SHA-256的前16位十六进制
+     */
+    public String fingerprint() {
+        String ret = fingerprint;
+        if (ret == null) {
+            StringBuilder sb = new StringBuilder();
+            for (RestRule rule : rules) {
+                sb.append(rule.getPriority()).append('|').append(rule.isStopOnMatch()).append('|')
+                        .append(rule.fingerprint()).append('\n');
+            }
+            fingerprint = ret = CommonUtil.sha256Hex(sb.toString()).substring(0, 16);
+        }
+        return ret;
+    }
+
+    /**
+     * 对句子执行规则
+     *
+     * @param parent 描述解析器
+     * @param sentence 句子
+     * @param nameId 节日名称id
+     * @param consumer 解析出的day
+     */
+    public void apply(DescriptionParser parent, String sentence, int nameId, Consumer<HolidayDay> consumer) {
+        for (RestRule rule : rules) {
+            if (rule.mayMatch(sentence) && rule.apply(parent, sentence, nameId, consumer) && rule.isStopOnMatch()) {
+                return;
+            }
+        }
+    }
+
+}
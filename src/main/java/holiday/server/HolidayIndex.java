@@ -0,0 +1,213 @@
+package holiday.server;
+
+import com.alibaba.fastjson2.JSON;
+import holiday.HolidayDay;
+import holiday.HolidayYear;
+import holiday.io.HolidayJsonWriter;
+import holiday.util.DateUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * 预先序列化的假期查询结果
+ * <p>
+ * 加载时把覆盖年份内每一天、每一年的JSON都序列化为字节, 查询只做数组下标或二分查找, 不再创建对象.
+ * 同一日期有多条安排时以后出现的为准, 与{@link holiday.HolidayCalendar}相同; 没有安排的日期按周末休息处理.
+ * 实例不可变, 可以在多个线程间共享.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public final class HolidayIndex {
+
+    private final int firstYear;
+
+    /**
+     * firstYear的1月1日
+     */
+    private final int firstDay;
+
+    /**
+     * 每天的响应, 下标为与firstDay相差的天数, 未加载的年份为null
+     */
+    private final byte[][] dayResponses;
+
+    /**
+     * 每年的响应, 下标为与firstYear相差的年数, 未加载的年份为null
+     */
+    private final byte[][] yearResponses;
+
+    /**
+     * 有安排的日期, 升序
+     */
+    private final int[] arrangedDays;
+
+    /**
+     * 有安排的日期的JSON, 与arrangedDays对应
+     */
+    private final byte[][] arrangedJson;
+
+    private HolidayIndex(TreeMap<Integer, HolidayYear> years) {
+        if (years.isEmpty()) {
+            this.firstYear = 0;
+            this.firstDay = 0;
+            this.dayResponses = new byte[0][];
+            this.yearResponses = new byte[0][];
+            this.arrangedDays = new int[0];
+            this.arrangedJson = new byte[0][];
+            return;
+        }
+        int lastYear = years.lastKey();
+        this.firstYear = years.firstKey();
+        this.firstDay = DateUtil.toEpochDay(firstYear, 1, 1);
+        this.dayResponses = new byte[DateUtil.toEpochDay(lastYear + 1, 1, 1) - firstDay][];
+        this.yearResponses = new byte[lastYear - firstYear + 1][];
+
+        for (HolidayYear year : years.values()) {
+            yearResponses[year.getYear() - firstYear] = serialize(year);
+        }
+
+        // 每天的有效安排, 后出现的覆盖先出现的; 只保留已加载年份内的日期(如2019年通知中的2018-12-30在2018年未加载时不保留)
+        HolidayDay[] arranged = new HolidayDay[dayResponses.length];
+        int arrangedCount = 0;
+        for (HolidayYear year : years.values()) {
+            for (HolidayDay day : year.getDays()) {
+                int index = day.getEpochDay() - firstDay;
+                if (index < 0 || index >= arranged.length
+                        || yearResponses[DateUtil.yearOf(day.getEpochDay()) - firstYear] == null) {
+                    continue;
+                }
+                if (arranged[index] == null) {
+                    arrangedCount++;
+                }
+                arranged[index] = day;
+            }
+        }
+        this.arrangedDays = new int[arrangedCount];
+        this.arrangedJson = new byte[arrangedCount][];
+        int next = 0;
+        for (int index = 0; index < dayResponses.length; index++) {
+            int epochDay = firstDay + index;
+            if (yearResponses[DateUtil.yearOf(epochDay) - firstYear] == null) {
+                continue;
+            }
+            if (arranged[index] != null) {
+                byte[] json = JSON.toJSONBytes(arranged[index]);
+                arrangedDays[next] = epochDay;
+                arrangedJson[next++] = json;
+                dayResponses[index] = json;
+            } else {
+                dayResponses[index] = unarranged(epochDay);
+            }
+        }
+    }
+
+    /**
+     * 由假期安排创建索引, 同一年出现多次时以后出现的为准
+     *
+     * @param years 假期安排
+     * @return 索引
+     */
+    public static HolidayIndex of(Iterable<HolidayYear> years) {
+        TreeMap<Integer, HolidayYear> byYear = new TreeMap<>();
+        for (HolidayYear year : years) {
+            byYear.put(year.getYear(), year);
+        }
+        return new HolidayIndex(byYear);
+    }
+
+    public static HolidayIndex of(HolidayYear... years) {
+        return of(Arrays.asList(years));
+    }
+
+    /**
+     * 一天的JSON: {@code {"date":"yyyy-MM-dd","isOffDay":true,"name":"string"}}, 没有安排时name为null
+     *
+     * @param epochDay epoch-day
+     * @return JSON, 年份未加载时为null
+     */
+    public byte[] day(int epochDay) {
+        int index = epochDay - firstDay;
+        return index < 0 || index >= dayResponses.length ? null : dayResponses[index];
+    }
+
+    /**
+     * 日期范围内有安排的日期组成的JSON数组
+     *
+     * @param from 开始epoch-day(含)
+     * @param to 结束epoch-day(含)
+     * @return JSON数组
+     */
+    public byte[] range(int from, int to) {
+        int start = lowerBound(from);
+        int end = lowerBound(to + 1);
+        if (start >= end) {
+            return new byte[]{'[', ']'};
+        }
+        int length = 1 + end - start;
+        for (int i = start; i < end; i++) {
+            length += arrangedJson[i].length;
+        }
+        byte[] result = new byte[length];
+        int position = 0;
+        result[position++] = '[';
+        for (int i = start; i < end; i++) {
+            if (i > start) {
+                result[position++] = ',';
+            }
+            byte[] json = arrangedJson[i];
+            System.arraycopy(json, 0, result, position, json.length);
+            position += json.length;
+        }
+        result[position] = ']';
+        return result;
+    }
+
+    /**
+     * 一年的JSON, 与{@code JSON.toJSONString(HolidayYear)}相同
+     *
+     * @param year 年份
+     * @return JSON, 年份未加载时为null
+     */
+    public byte[] year(int year) {
+        int index = year - firstYear;
+        return index < 0 || index >= yearResponses.length ? null : yearResponses[index];
+    }
+
+    /**
+     * 第一个不小于epochDay的安排的下标
+     */
+    private int lowerBound(int epochDay) {
+        int low = 0;
+        int high = arrangedDays.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (arrangedDays[middle] < epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static byte[] serialize(HolidayYear year) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        HolidayJsonWriter writer = new HolidayJsonWriter(out);
+        writer.write(year);
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    private static byte[] unarranged(int epochDay) {
+        String json = String.format("{\"date\":\"%04d-%02d-%02d\",\"isOffDay\":%s,\"name\":null}",
+                DateUtil.yearOf(epochDay), DateUtil.monthOf(epochDay), DateUtil.dayOfMonthOf(epochDay),
+                DateUtil.isWeekend(epochDay));
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
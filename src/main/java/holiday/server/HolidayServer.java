@@ -0,0 +1,280 @@
+package holiday.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import holiday.CrawlPipeline;
+import holiday.HolidayYear;
+import holiday.util.DateUtil;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.java.Log;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 内嵌假期查询服务
+ * <p>
+ * 基于JDK的{@code com.sun.net.httpserver}, 数据只在加载时序列化一次({@link HolidayIndex}), 请求直接写出缓存的字节:
+ * <ul>
+ *     <li>{@code GET /day/2024-10-01}: 一天, 年份未加载时404</li>
+ *     <li>{@code GET /range?from=2024-10-01&to=2024-10-31}: 范围内(含两端)有安排的日期</li>
+ *     <li>{@code GET /year/2024}: 一年, 与抓取结果的JSON相同</li>
+ * </ul>
+ * 响应都带Content-Length, HTTP/1.1连接保持复用.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Log
+public class HolidayServer implements AutoCloseable {
+
+    private static final String DAY_PATH = "/day/";
+
+    private static final String RANGE_PATH = "/range";
+
+    private static final String YEAR_PATH = "/year/";
+
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private static final byte[] NOT_FOUND = error("not found");
+
+    private static final byte[] BAD_REQUEST = error("bad request");
+
+    private static final byte[] METHOD_NOT_ALLOWED = error("method not allowed");
+
+    static {
+        // 响应头和body分开写出时, Nagle算法和延迟ACK会让每个请求多等约40ms
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+
+    private volatile HolidayIndex index;
+
+    /**
+     * 启动服务
+     *
+     * @param index 数据
+     * @param options 配置
+     * @throws IOException 无法监听端口
+     */
+    public HolidayServer(HolidayIndex index, Options options) throws IOException {
+        this.index = index;
+        InetSocketAddress address = options.getHost() == null
+                ? new InetSocketAddress(options.getPort())
+                : new InetSocketAddress(options.getHost(), options.getPort());
+        this.server = HttpServer.create(address, options.getBacklog());
+        server.createContext("/", this::handle);
+        server.setExecutor(options.getExecutor());
+        server.start();
+    }
+
+    /**
+     * 实际监听的端口
+     *
+     * @return 端口
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * 替换数据, 之后的请求使用新数据
+     *
+     * @param index 数据
+     */
+    public void setIndex(HolidayIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                respond(exchange, 405, METHOD_NOT_ALLOWED);
+                return;
+            }
+            byte[] body = route(exchange.getRequestURI().getRawPath(), exchange.getRequestURI().getRawQuery());
+            if (body == null) {
+                respond(exchange, 404, NOT_FOUND);
+            } else if (body == BAD_REQUEST) {
+                respond(exchange, 400, BAD_REQUEST);
+            } else {
+                respond(exchange, 200, body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 按路径查询
+     *
+     * @return 响应, 不存在时为null, 参数错误时为BAD_REQUEST
+     */
+    private byte[] route(String path, String query) {
+        HolidayIndex current = index;
+        if (path.startsWith(DAY_PATH)) {
+            int epochDay = parseDate(path, DAY_PATH.length(), path.length());
+            return epochDay == Integer.MIN_VALUE ? BAD_REQUEST : current.day(epochDay);
+        }
+        if (path.startsWith(YEAR_PATH)) {
+            int year = parseDigits(path, YEAR_PATH.length(), path.length());
+            return year < 0 ? BAD_REQUEST : current.year(year);
+        }
+        if (path.equals(RANGE_PATH)) {
+            int from = parseDate(queryParameter(query, "from"));
+            int to = parseDate(queryParameter(query, "to"));
+            return from == Integer.MIN_VALUE || to == Integer.MIN_VALUE || from > to
+                    ? BAD_REQUEST
+                    : current.range(from, to);
+        }
+        return null;
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+    }
+
+    private static String queryParameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        int start = 0;
+        while (start <= query.length()) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = query.length();
+            }
+            if (end - start > name.length() && query.startsWith(name, start)
+                    && query.charAt(start + name.length()) == '=') {
+                return query.substring(start + name.length() + 1, end);
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private static int parseDate(String value) {
+        return value == null ? Integer.MIN_VALUE : parseDate(value, 0, value.length());
+    }
+
+    /**
+     * 解析yyyy-MM-dd
+     *
+     * @return epoch-day, 格式错误时为Integer.MIN_VALUE
+     */
+    private static int parseDate(String value, int start, int end) {
+        if (end - start != 10 || value.charAt(start + 4) != '-' || value.charAt(start + 7) != '-') {
+            return Integer.MIN_VALUE;
+        }
+        int year = parseDigits(value, start, start + 4);
+        int month = parseDigits(value, start + 5, start + 7);
+        int day = parseDigits(value, start + 8, end);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > DateUtil.lengthOfMonth(year, month)) {
+            return Integer.MIN_VALUE;
+        }
+        return DateUtil.toEpochDay(year, month, day);
+    }
+
+    /**
+     * 解析不超过9位的非负整数
+     *
+     * @return 整数, 格式错误时为-1
+     */
+    private static int parseDigits(String value, int start, int end) {
+        if (start >= end || end - start > 9) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + c - '0';
+        }
+        return result;
+    }
+
+    private static byte[] error(String message) {
+        return ("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 抓取指定年份后启动服务: 端口 年份...
+     *
+     * @param args 端口和年份, 默认8080和今年、明年
+     * @throws IOException 无法监听端口
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        List<Integer> years = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            years.add(Integer.parseInt(args[i]));
+        }
+        if (years.isEmpty()) {
+            int year = LocalDate.now().getYear();
+            years.add(year);
+            years.add(year + 1);
+        }
+        List<HolidayYear> holidayYears;
+        try (CrawlPipeline pipeline = new CrawlPipeline()) {
+            holidayYears = pipeline.fetchAll(years);
+        }
+        HolidayServer server = new HolidayServer(HolidayIndex.of(holidayYears), Options.builder().port(port).build());
+        log.info("假期查询服务已启动, 端口: " + server.getPort());
+    }
+
+    /**
+     * 服务配置
+     */
+    @Value
+    @Builder
+    public static class Options {
+
+        /**
+         * 监听地址, 默认所有地址
+         */
+        String host;
+
+        /**
+         * 端口, 0为随机端口
+         */
+        @Builder.Default
+        int port = 8080;
+
+        /**
+         * 等待accept的连接数, 0为系统默认
+         */
+        int backlog;
+
+        /**
+         * 处理请求的线程池, 默认在分发线程中处理.
+         * 响应都是缓存的字节, 单线程处理通常已足够; 多核时可传入固定大小的线程池
+         */
+        Executor executor;
+    }
+
+}
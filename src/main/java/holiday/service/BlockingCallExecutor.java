@@ -0,0 +1,37 @@
+package holiday.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 没有原生异步实现的HttpService在此线程池中执行阻塞请求
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+final class BlockingCallExecutor {
+
+    private static final int THREADS = 32;
+
+    static final ExecutorService INSTANCE;
+
+    static {
+        AtomicInteger index = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "holiday-http-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        INSTANCE = executor;
+    }
+
+    private BlockingCallExecutor() {
+    }
+
+}
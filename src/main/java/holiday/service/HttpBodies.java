@@ -0,0 +1,279 @@
+package holiday.service;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 响应body的解压、限长和字符集识别, 各HttpService实现共用
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@UtilityClass
+public class HttpBodies {
+
+    /**
+     * 请求头Accept-Encoding的值
+     */
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /**
+     * 在body开头的这么多字节内查找meta标签中的字符集
+     */
+    private static final int SNIFF_BYTES = 1024;
+
+    private static final Pattern CONTENT_TYPE_CHARSET = Pattern.compile("charset\\s*=\\s*[\"']?([\\w.:-]+)",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern META_CHARSET = Pattern.compile(
+            "<meta[^>]+charset\\s*=\\s*[\"']?([\\w.:-]+)", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * 按Content-Encoding边读边解压, 并限制解压后的长度
+     *
+     * @param raw 原始body
+     * @param contentEncoding Content-Encoding响应头, 可为null
+     * @param maxBytes 解压后的最大长度
+     * @return 解压后的body
+     * @throws IOException gzip头错误
+     */
+    public static InputStream decode(InputStream raw, String contentEncoding, long maxBytes) throws IOException {
+        InputStream in = raw;
+        String encoding = contentEncoding == null ? "" : contentEncoding.trim().toLowerCase(Locale.ROOT);
+        if (encoding.equals("gzip") || encoding.equals("x-gzip")) {
+            in = new GZIPInputStream(raw, 8192);
+        } else if (encoding.equals("deflate")) {
+            in = inflate(raw);
+        }
+        return limit(in, maxBytes);
+    }
+
+    /**
+     * 关闭, 忽略异常, 用于丢弃不再需要的流(如输掉对冲的响应)
+     *
+     * @param closeable 可为null
+     */
+    public static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException | RuntimeException ignored) {
+            // 已不再需要, 关闭失败不影响结果
+        }
+    }
+
+    /**
+     * 异步打开的流到达后再包装(如加上截止时间或写入缓存)
+     * <p>
+     * 返回的future被取消时取消打开, 之后才到达的流被关闭, 不会泄漏连接
+     *
+     * @param opened 打开中的流
+     * @param wrapper 包装, 抛出异常时关闭原始流
+     * @return 包装后的流
+     */
+    public static CompletableFuture<InputStream> thenWrap(
+            CompletableFuture<InputStream> opened, Function<InputStream, InputStream> wrapper) {
+        CompletableFuture<InputStream> result = new CompletableFuture<>();
+        opened.whenComplete((body, e) -> {
+            if (e != null) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (result.isDone()) {
+                closeQuietly(body);
+                return;
+            }
+            InputStream wrapped;
+            try {
+                wrapped = wrapper.apply(body);
+            } catch (RuntimeException ex) {
+                closeQuietly(body);
+                result.completeExceptionally(ex);
+                return;
+            }
+            if (!result.complete(wrapped)) {
+                closeQuietly(wrapped);
+            }
+        });
+        result.whenComplete((body, e) -> {
+            if (result.isCancelled()) {
+                opened.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 限制长度, 超过时读取抛出IOException
+     *
+     * @param in 输入流
+     * @param maxBytes 最大长度
+     * @return 输入流
+     */
+    public static InputStream limit(InputStream in, long maxBytes) {
+        return new FilterInputStream(in) {
+
+            private long remaining = maxBytes;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0 && --remaining < 0) {
+                    throw tooLarge(maxBytes);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0 && (remaining -= n) < 0) {
+                    throw tooLarge(maxBytes);
+                }
+                return n;
+            }
+        };
+    }
+
+    /**
+     * 从Content-Type响应头识别字符集
+     *
+     * @param contentType Content-Type响应头, 可为null
+     * @return 字符集, 没有或不支持时为null
+     */
+    public static Charset charsetOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        Matcher matcher = CONTENT_TYPE_CHARSET.matcher(contentType);
+        return matcher.find() ? forName(matcher.group(1)) : null;
+    }
+
+    /**
+     * 识别字符集: 先看Content-Type响应头, 再看body开头的meta标签, 都没有时为UTF-8
+     *
+     * @param contentType Content-Type响应头, 可为null
+     * @param head body开头的字节
+     * @param length 有效长度
+     * @return 字符集
+     */
+    public static Charset detectCharset(String contentType, byte[] head, int length) {
+        Charset charset = charsetOf(contentType);
+        if (charset != null) {
+            return charset;
+        }
+        // meta标签只含ASCII, 按ISO-8859-1解码不会出错
+        String text = new String(head, 0, Math.min(length, SNIFF_BYTES), StandardCharsets.ISO_8859_1);
+        Matcher matcher = META_CHARSET.matcher(text);
+        if (matcher.find()) {
+            charset = forName(matcher.group(1));
+        }
+        return charset == null ? StandardCharsets.UTF_8 : charset;
+    }
+
+    /**
+     * 识别字符集并转为UTF-8的流, 已是UTF-8时不复制
+     *
+     * @param body 解压后的body
+     * @param contentType Content-Type响应头, 可为null
+     * @return UTF-8的body
+     * @throws IOException 读取失败
+     */
+    public static InputStream toUtf8(InputStream body, String contentType) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(body, 8192);
+        in.mark(SNIFF_BYTES);
+        byte[] head = new byte[SNIFF_BYTES];
+        int length = 0;
+        int n;
+        while (length < SNIFF_BYTES && (n = in.read(head, length, SNIFF_BYTES - length)) > 0) {
+            length += n;
+        }
+        in.reset();
+        Charset charset = detectCharset(contentType, head, length);
+        if (charset.equals(StandardCharsets.UTF_8)) {
+            return in;
+        }
+        try (InputStream closeable = in) {
+            HttpBody decoded = new HttpBody().readFrom(closeable, Long.MAX_VALUE).setCharset(charset);
+            return new ByteArrayInputStream(decoded.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 读取整个body并识别字符集, 不关闭流
+     *
+     * @param body 解压后的body
+     * @param contentType Content-Type响应头, 可为null
+     * @param buffer 复用的缓冲
+     * @param maxBytes 最大长度
+     * @return buffer
+     * @throws IOException 读取失败或超过最大长度
+     */
+    public static HttpBody read(InputStream body, String contentType, HttpBody buffer, long maxBytes)
+            throws IOException {
+        buffer.readFrom(body, maxBytes);
+        return buffer.setCharset(detectCharset(contentType, buffer.array(), buffer.length()));
+    }
+
+    static IOException tooLarge(long maxBytes) {
+        return new IOException("响应超过最大长度: " + maxBytes);
+    }
+
+    /**
+     * deflate: 按规范是zlib格式, 也兼容部分服务器直接发送的原始deflate数据
+     */
+    private static InputStream inflate(InputStream raw) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(raw, 2);
+        int first = in.read();
+        int second = in.read();
+        if (second >= 0) {
+            in.unread(second);
+        }
+        if (first >= 0) {
+            in.unread(first);
+        }
+        boolean zlib = first >= 0 && second >= 0 && (first & 0x0F) == 8 && ((first << 8) | second) % 31 == 0;
+        Inflater inflater = new Inflater(!zlib);
+        return new InflaterInputStream(in, inflater, 8192) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inflater.end();
+                }
+            }
+        };
+    }
+
+    private static Charset forName(String name) {
+        try {
+            return Charset.forName(name);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package holiday.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 可复用的响应body缓冲
+ * <p>
+ * 保存解压后的原始字节和识别出的字符集, 需要时再解码. 同一个实例可以反复用于多次请求,
+ * 只在body比之前的都大时扩容, 避免每个页面都分配一次完整的字符串. 实例不是线程安全的.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public final class HttpBody {
+
+    private static final int INITIAL_CAPACITY = 8192;
+
+    private byte[] bytes;
+
+    private int length;
+
+    private Charset charset = StandardCharsets.UTF_8;
+
+    public HttpBody() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public HttpBody(int initialCapacity) {
+        this.bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * 清空后读取整个流, 不关闭流
+     *
+     * @param in 输入流
+     * @param maxBytes 最大长度
+     * @return this
+     * @throws IOException 读取失败或超过最大长度
+     */
+    public HttpBody readFrom(InputStream in, long maxBytes) throws IOException {
+        length = 0;
+        charset = StandardCharsets.UTF_8;
+        int n;
+        while (true) {
+            if (length == bytes.length) {
+                if (length >= maxBytes) {
+                    if (in.read() < 0) {
+                        break;
+                    }
+                    throw HttpBodies.tooLarge(maxBytes);
+                }
+                bytes = Arrays.copyOf(bytes, (int) Math.min(Math.min((long) length << 1, maxBytes), Integer.MAX_VALUE - 8));
+            }
+            n = in.read(bytes, length, bytes.length - length);
+            if (n < 0) {
+                break;
+            }
+            length += n;
+        }
+        return this;
+    }
+
+    /**
+     * 内部数组, 有效内容为[0, length)
+     *
+     * @return 内部数组, 下次读取后内容会被覆盖
+     */
+    public byte[] array() {
+        return bytes;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public HttpBody setCharset(Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * 以流的形式读取body, 不复制
+     *
+     * @return 输入流
+     */
+    public InputStream inputStream() {
+        return new ByteArrayInputStream(bytes, 0, length);
+    }
+
+    /**
+     * 按字符集解码的Reader, 不复制
+     *
+     * @return Reader
+     */
+    public Reader reader() {
+        return new InputStreamReader(inputStream(), charset);
+    }
+
+    /**
+     * 按字符集解码
+     *
+     * @return body
+     */
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, charset);
+    }
+
+}
@@ -0,0 +1,236 @@
+package holiday.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.function.Predicate;
+
+/**
+ * http配置
+ * <p>
+ * 可由{@link #fromSystemProperties()}从系统属性读取, 未设置的项使用默认值.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Value
+@Builder(toBuilder = true)
+public class HttpConfig {
+
+    public static final String IMPLEMENTATION_PROPERTY = "holiday.http.impl";
+
+    public static final String CONNECT_TIMEOUT_PROPERTY = "holiday.http.connectTimeoutMillis";
+
+    public static final String READ_TIMEOUT_PROPERTY = "holiday.http.readTimeoutMillis";
+
+    public static final String MAX_IDLE_CONNECTIONS_PROPERTY = "holiday.http.maxIdleConnections";
+
+    public static final String KEEP_ALIVE_PROPERTY = "holiday.http.keepAliveSeconds";
+
+    public static final String MAX_REQUESTS_PER_HOST_PROPERTY = "holiday.http.maxRequestsPerHost";
+
+    public static final String MAX_BODY_BYTES_PROPERTY = "holiday.http.maxBodyBytes";
+
+    public static final String MAX_ATTEMPTS_PROPERTY = "holiday.http.maxAttempts";
+
+    public static final String DEADLINE_PROPERTY = "holiday.http.deadlineMillis";
+
+    public static final String HEDGE_PROPERTY = "holiday.http.hedge";
+
+    public static final String REQUESTS_PER_SECOND_PROPERTY = "holiday.http.requestsPerSecondPerHost";
+
+    /**
+     * 磁盘缓存目录, 未设置时不缓存
+     */
+    public static final String CACHE_DIR_PROPERTY = "holiday.http.cache.dir";
+
+    /**
+     * 缓存新鲜期(秒), 期内不访问网络, 之后重新验证
+     */
+    public static final String CACHE_FRESH_SECONDS_PROPERTY = "holiday.http.cache.freshSeconds";
+
+    /**
+     * 录制/回放目录, 未设置时访问网络
+     */
+    public static final String REPLAY_DIR_PROPERTY = "holiday.http.replay.dir";
+
+    /**
+     * 为true时录制响应到{@link #REPLAY_DIR_PROPERTY}, 否则只回放
+     */
+    public static final String REPLAY_RECORD_PROPERTY = "holiday.http.replay.record";
+
+    /**
+     * http实现
+     */
+    @Builder.Default
+    Implementation implementation = Implementation.HUTOOL;
+
+    @Builder.Default
+    int connectTimeoutMillis = 10_000;
+
+    @Builder.Default
+    int readTimeoutMillis = 30_000;
+
+    /**
+     * 连接池中的最大空闲连接数(OkHttp), Hutool和URLConnection使用JDK的keep-alive缓存(http.maxConnections)
+     */
+    @Builder.Default
+    int maxIdleConnections = 8;
+
+    /**
+     * 空闲连接保留时间(秒)
+     */
+    @Builder.Default
+    long keepAliveSeconds = 300;
+
+    /**
+     * 每个host同时进行的异步请求数(OkHttp)
+     */
+    @Builder.Default
+    int maxRequestsPerHost = 16;
+
+    /**
+     * 解压后body的最大字节数, 超过时请求失败
+     */
+    @Builder.Default
+    long maxBodyBytes = 16L << 20;
+
+    /**
+     * 每次调用的最大尝试次数(含第一次), 只重试网络错误
+     */
+    @Builder.Default
+    int maxAttempts = 3;
+
+    /**
+     * 每次调用(含所有重试)的截止时间, 0为不限制
+     */
+    @Builder.Default
+    long deadlineMillis = 120_000;
+
+    /**
+     * 第一次重试前的退避时间, 之后每次翻倍, 实际等待为[0, 退避时间)内的随机值
+     */
+    @Builder.Default
+    long retryBackoffMillis = 200;
+
+    @Builder.Default
+    long maxRetryBackoffMillis = 5_000;
+
+    /**
+     * 是否对慢请求发出对冲请求: 超过该host的延迟分位数仍未返回时再发一次, 取先成功的结果
+     */
+    boolean hedge;
+
+    /**
+     * 触发对冲请求的延迟分位数
+     */
+    @Builder.Default
+    double hedgeQuantile = 0.95;
+
+    /**
+     * 该host成功请求数达到此值后才开始对冲
+     */
+    @Builder.Default
+    int hedgeMinSamples = 20;
+
+    /**
+     * 同一host连续失败此次数后熔断, 0为不熔断
+     */
+    @Builder.Default
+    int circuitBreakerThreshold = 5;
+
+    /**
+     * 熔断持续时间, 之后放行一个试探请求
+     */
+    @Builder.Default
+    long circuitBreakerOpenMillis = 30_000;
+
+    /**
+     * 每个host每秒的最大请求数, 重试和对冲请求同样计入, 0为不限速
+     */
+    @Builder.Default
+    double requestsPerSecondPerHost = 4;
+
+    /**
+     * 磁盘缓存目录, 为null时不缓存
+     */
+    String cacheDir;
+
+    @Builder.Default
+    long cacheFreshSeconds = 3600;
+
+    /**
+     * 缓存时每次都重新验证、不使用新鲜期的url, 如内容随时变化的搜索接口
+     */
+    @Builder.Default
+    Predicate<String> cacheAlwaysRevalidate = url -> false;
+
+    /**
+     * 录制/回放目录, 为null时访问网络
+     */
+    String replayDir;
+
+    /**
+     * 是否录制, 为false时只回放replayDir中的响应
+     */
+    boolean replayRecord;
+
+    /**
+     * 从系统属性读取配置
+     *
+     * @return 配置
+     */
+    public static HttpConfig fromSystemProperties() {
+        HttpConfig defaults = HttpConfig.builder().build();
+        String implementation = System.getProperty(IMPLEMENTATION_PROPERTY);
+        String requestsPerSecond = System.getProperty(REQUESTS_PER_SECOND_PROPERTY);
+        return defaults.toBuilder()
+                .implementation(implementation == null || implementation.isEmpty()
+                        ? defaults.implementation
+                        : Implementation.of(implementation))
+                .connectTimeoutMillis(Integer.getInteger(CONNECT_TIMEOUT_PROPERTY, defaults.connectTimeoutMillis))
+                .readTimeoutMillis(Integer.getInteger(READ_TIMEOUT_PROPERTY, defaults.readTimeoutMillis))
+                .maxIdleConnections(Integer.getInteger(MAX_IDLE_CONNECTIONS_PROPERTY, defaults.maxIdleConnections))
+                .keepAliveSeconds(Long.getLong(KEEP_ALIVE_PROPERTY, defaults.keepAliveSeconds))
+                .maxRequestsPerHost(Integer.getInteger(MAX_REQUESTS_PER_HOST_PROPERTY, defaults.maxRequestsPerHost))
+                .maxBodyBytes(Long.getLong(MAX_BODY_BYTES_PROPERTY, defaults.maxBodyBytes))
+                .maxAttempts(Integer.getInteger(MAX_ATTEMPTS_PROPERTY, defaults.maxAttempts))
+                .deadlineMillis(Long.getLong(DEADLINE_PROPERTY, defaults.deadlineMillis))
+                .hedge(Boolean.getBoolean(HEDGE_PROPERTY))
+                .requestsPerSecondPerHost(requestsPerSecond == null || requestsPerSecond.isEmpty()
+                        ? defaults.requestsPerSecondPerHost
+                        : Double.parseDouble(requestsPerSecond.trim()))
+                .cacheDir(System.getProperty(CACHE_DIR_PROPERTY))
+                .cacheFreshSeconds(Long.getLong(CACHE_FRESH_SECONDS_PROPERTY, defaults.cacheFreshSeconds))
+                .replayDir(System.getProperty(REPLAY_DIR_PROPERTY))
+                .replayRecord(Boolean.getBoolean(REPLAY_RECORD_PROPERTY))
+                .build();
+    }
+
+    /**
+     * http实现
+     */
+    public enum Implementation {
+        HUTOOL,
+        OKHTTP,
+        URL_CONNECTION;
+
+        /**
+         * 按名称查找, 忽略大小写和-/_
+         *
+         * @param name 名称, 如hutool, okhttp, url-connection
+         * @return 实现
+         */
+        public static Implementation of(String name) {
+            String normalized = name.trim().replace("-", "").replace("_", "");
+            for (Implementation implementation : values()) {
+                if (implementation.name().replace("_", "").equalsIgnoreCase(normalized)) {
+                    return implementation;
+                }
+            }
+            throw new IllegalArgumentException("未知的http实现: " + name);
+        }
+    }
+
+}
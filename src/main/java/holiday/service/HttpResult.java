@@ -0,0 +1,39 @@
+package holiday.service;
+
+import lombok.Value;
+
+/**
+ * http响应
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Value
+public class HttpResult {
+
+    public static final int OK = 200;
+
+    public static final int NOT_MODIFIED = 304;
+
+    /**
+     * 状态码
+     */
+    int status;
+
+    /**
+     * body, 304时为空字符串
+     */
+    String body;
+
+    /**
+     * ETag响应头
+     */
+    String etag;
+
+    /**
+     * Last-Modified响应头
+     */
+    String lastModified;
+
+}
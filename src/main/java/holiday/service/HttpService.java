@@ -1,6 +1,13 @@
 package holiday.service;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * 2024/9/10
@@ -18,4 +25,102 @@ public interface HttpService {
      */
     String getBody(String targetUrl, Map<String, Object> params);
 
+    /**
+     * 异步访问Url并获取body
+     * <p>
+     * 默认实现在共享线程池中执行{@link #getBody(String, Map)}, 有原生异步api的实现应覆盖此方法
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    default CompletableFuture<String> getBodyAsync(String targetUrl, Map<String, Object> params) {
+        return supplyBlocking(() -> getBody(targetUrl, params));
+    }
+
+    /**
+     * 在共享线程池中执行阻塞的调用, 如边下载边读取{@link #getBodyStream(String, Map)}
+     *
+     * @param call 阻塞调用
+     * @param <T> 结果类型
+     * @return 结果
+     */
+    static <T> CompletableFuture<T> supplyBlocking(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, BlockingCallExecutor.INSTANCE);
+    }
+
+    /**
+     * 访问Url并以流的形式获取body(UTF-8), 调用方负责关闭
+     * <p>
+     * 默认实现读取完整的{@link #getBody(String, Map)}, 能边下载边读取的实现应覆盖此方法
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    default InputStream getBodyStream(String targetUrl, Map<String, Object> params) {
+        String body = getBody(targetUrl, params);
+        return new ByteArrayInputStream(body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 异步访问Url并以流的形式获取body(UTF-8), 收到响应头后完成, 调用方负责关闭
+     * <p>
+     * 默认实现在共享线程池中执行{@link #getBodyStream(String, Map)}, future已结束(如被取消)时关闭打开的流.
+     * 读取流仍是阻塞的, 不应在完成future的线程上直接读取, 可以交给{@link #supplyBlocking}
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    default CompletableFuture<InputStream> getBodyStreamAsync(String targetUrl, Map<String, Object> params) {
+        CompletableFuture<InputStream> future = new CompletableFuture<>();
+        BlockingCallExecutor.INSTANCE.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                InputStream body = getBodyStream(targetUrl, params);
+                if (!future.complete(body)) {
+                    HttpBodies.closeQuietly(body);
+                }
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 访问Url并把body读入可复用的缓冲, 同时识别字符集
+     * <p>
+     * 默认实现读取{@link #getBodyStream(String, Map)}(UTF-8), 能直接读取原始字节的实现应覆盖此方法
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @param buffer 复用的缓冲, 原有内容被覆盖
+     * @return buffer
+     */
+    default HttpBody getBody(String targetUrl, Map<String, Object> params, HttpBody buffer) {
+        try (InputStream in = getBodyStream(targetUrl, params)) {
+            return buffer.readFrom(in, Long.MAX_VALUE).setCharset(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 访问Url并获取响应, 可附加请求头(如条件请求的If-None-Match)
+     * <p>
+     * 默认实现忽略请求头, 总是返回200
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @param headers 请求头
+     * @return 响应
+     */
+    default HttpResult getResponse(String targetUrl, Map<String, Object> params, Map<String, String> headers) {
+        return new HttpResult(HttpResult.OK, getBody(targetUrl, params), null, null);
+    }
+
 }
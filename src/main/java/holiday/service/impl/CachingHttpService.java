@@ -0,0 +1,388 @@
+package holiday.service.impl;
+
+import holiday.service.HttpBodies;
+import holiday.service.HttpBody;
+import holiday.service.HttpResult;
+import holiday.service.HttpService;
+import holiday.util.CommonUtil;
+import lombok.extern.java.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * 磁盘缓存的HttpService
+ * <p>
+ * 以url和排序后的参数为key, 在目录中保存body和元数据(ETag, Last-Modified, 保存时间).
+ * 新鲜期内直接返回磁盘内容; 过期后携带If-None-Match/If-Modified-Since重新验证,
+ * 304时沿用磁盘内容, 200时更新缓存. 重新验证抛出异常或返回其他状态码时返回过期内容.
+ * 内容随时变化的url(如搜索接口)可以指定为总是重新验证, 不使用新鲜期.
+ * <p>
+ * 异步和流式调用命中新鲜缓存时直接读取磁盘文件; 没有缓存时直接使用delegate的异步或流式调用,
+ * 边读边写入缓存, 读到末尾才提交(提前关闭时先读完剩余内容, 读取失败则不留下缓存). 这样得到的缓存没有ETag和Last-Modified,
+ * 过期后重新下载完整内容. 缓存过期时需要带请求头重新验证, 仍通过{@link #getResponse}进行.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Log
+public class CachingHttpService implements HttpService {
+
+    private static final String BODY_SUFFIX = ".body";
+
+    private static final String META_SUFFIX = ".meta";
+
+    private final HttpService delegate;
+
+    private final Path directory;
+
+    private final long freshMillis;
+
+    private final Predicate<String> alwaysRevalidate;
+
+    /**
+     * 构造函数
+     *
+     * @param delegate 实际访问网络的HttpService
+     * @param directory 缓存目录
+     * @param freshFor 新鲜期, 期内不访问网络
+     */
+    public CachingHttpService(HttpService delegate, Path directory, Duration freshFor) {
+        this(delegate, directory, freshFor, url -> false);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param delegate 实际访问网络的HttpService
+     * @param directory 缓存目录
+     * @param freshFor 新鲜期, 期内不访问网络
+     * @param alwaysRevalidate 为true的url每次都重新验证
+     */
+    public CachingHttpService(HttpService delegate, Path directory, Duration freshFor,
+                              Predicate<String> alwaysRevalidate) {
+        this.delegate = delegate;
+        this.directory = directory;
+        this.freshMillis = freshFor.toMillis();
+        this.alwaysRevalidate = alwaysRevalidate;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法创建缓存目录: " + directory, e);
+        }
+    }
+
+    /**
+     * 访问Url并获取body, 优先使用缓存
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public String getBody(String targetUrl, Map<String, Object> params) {
+        return getResponse(targetUrl, params, new HashMap<>()).getBody();
+    }
+
+    /**
+     * 异步访问Url并获取body, 新鲜缓存直接返回, 没有缓存时使用delegate的异步调用
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public CompletableFuture<String> getBodyAsync(String targetUrl, Map<String, Object> params) {
+        String key = key(targetUrl, params);
+        Entry entry = read(key, true);
+        if (entry != null) {
+            return isFresh(entry, targetUrl)
+                    ? CompletableFuture.completedFuture(entry.result.getBody())
+                    : HttpService.supplyBlocking(() -> getBody(targetUrl, params));
+        }
+        long now = System.currentTimeMillis();
+        CompletableFuture<String> call = delegate.getBodyAsync(targetUrl, params);
+        CompletableFuture<String> result = call.thenApply(body -> {
+            write(key, targetUrl, null, now, utf8(body));
+            return body;
+        });
+        result.whenComplete((body, e) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 访问Url并以流的形式获取body, 新鲜缓存直接读取磁盘文件, 没有缓存时边读边写入缓存
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public InputStream getBodyStream(String targetUrl, Map<String, Object> params) {
+        String key = key(targetUrl, params);
+        Entry entry = read(key, false);
+        if (entry != null) {
+            if (!isFresh(entry, targetUrl)) {
+                return HttpService.super.getBodyStream(targetUrl, params);
+            }
+            InputStream cached = openBody(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long now = System.currentTimeMillis();
+        return tee(delegate.getBodyStream(targetUrl, params), key, targetUrl, now);
+    }
+
+    /**
+     * 异步访问Url并以流的形式获取body, 新鲜缓存直接读取磁盘文件, 没有缓存时使用delegate的异步调用并边读边写入缓存
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public CompletableFuture<InputStream> getBodyStreamAsync(String targetUrl, Map<String, Object> params) {
+        String key = key(targetUrl, params);
+        Entry entry = read(key, false);
+        if (entry != null) {
+            if (!isFresh(entry, targetUrl)) {
+                return HttpService.super.getBodyStreamAsync(targetUrl, params);
+            }
+            InputStream cached = openBody(key);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        long now = System.currentTimeMillis();
+        return HttpBodies.thenWrap(delegate.getBodyStreamAsync(targetUrl, params),
+                body -> tee(body, key, targetUrl, now));
+    }
+
+    /**
+     * 访问Url并把body读入可复用的缓冲, 新鲜缓存直接读取磁盘文件, 没有缓存时使用delegate的实现
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @param buffer 复用的缓冲
+     * @return buffer
+     */
+    @Override
+    public HttpBody getBody(String targetUrl, Map<String, Object> params, HttpBody buffer) {
+        String key = key(targetUrl, params);
+        Entry entry = read(key, false);
+        try {
+            if (entry != null) {
+                if (!isFresh(entry, targetUrl)) {
+                    return HttpService.super.getBody(targetUrl, params, buffer);
+                }
+                try (InputStream cached = openBody(key)) {
+                    if (cached != null) {
+                        return buffer.readFrom(cached, Long.MAX_VALUE).setCharset(StandardCharsets.UTF_8);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法读取缓存: " + targetUrl, e);
+        }
+        long now = System.currentTimeMillis();
+        delegate.getBody(targetUrl, params, buffer);
+        byte[] body = StandardCharsets.UTF_8.equals(buffer.getCharset())
+                ? Arrays.copyOf(buffer.array(), buffer.length())
+                : utf8(buffer.toString());
+        write(key, targetUrl, null, now, body);
+        return buffer;
+    }
+
+    /**
+     * 访问Url并获取响应, 优先使用缓存
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @param headers 请求头
+     * @return 响应
+     */
+    @Override
+    public HttpResult getResponse(String targetUrl, Map<String, Object> params, Map<String, String> headers) {
+        String key = key(targetUrl, params);
+        Entry entry = read(key, true);
+        long now = System.currentTimeMillis();
+        if (entry != null && isFresh(entry, targetUrl)) {
+            return entry.result;
+        }
+
+        Map<String, String> conditionalHeaders = new HashMap<>(headers);
+        if (entry != null) {
+            if (entry.result.getEtag() != null) {
+                conditionalHeaders.put("If-None-Match", entry.result.getEtag());
+            }
+            if (entry.result.getLastModified() != null) {
+                conditionalHeaders.put("If-Modified-Since", entry.result.getLastModified());
+            }
+        }
+
+        HttpResult result;
+        try {
+            result = delegate.getResponse(targetUrl, params, conditionalHeaders);
+        } catch (RuntimeException e) {
+            if (entry == null) {
+                throw e;
+            }
+            log.warning("重新验证失败, 使用过期缓存: " + targetUrl + ": " + e.getMessage());
+            return entry.result;
+        }
+
+        if (result.getStatus() == HttpResult.NOT_MODIFIED && entry != null) {
+            write(key, targetUrl, entry.result, now, null);
+            return entry.result;
+        }
+        if (result.getStatus() == HttpResult.OK) {
+            write(key, targetUrl, result, now, utf8(result.getBody()));
+        } else if (entry != null) {
+            log.warning("重新验证返回" + result.getStatus() + ", 使用过期缓存: " + targetUrl);
+            return entry.result;
+        }
+        return result;
+    }
+
+    /**
+     * 缓存key: url和排序后参数的SHA-256, 与{@link ReplayHttpService}共用
+     */
+    static String key(String targetUrl, Map<String, Object> params) {
+        StringBuilder sb = new StringBuilder(targetUrl);
+        if (params != null) {
+            new TreeMap<>(params).forEach((k, v) -> sb.append('\n').append(k).append('=').append(v));
+        }
+        return CommonUtil.sha256Hex(sb.toString());
+    }
+
+    private boolean isFresh(Entry entry, String targetUrl) {
+        return System.currentTimeMillis() - entry.storedAt < freshMillis && !alwaysRevalidate.test(targetUrl);
+    }
+
+    /**
+     * 读取缓存
+     *
+     * @param withBody 为false时只读取元数据, result的body为null
+     */
+    private Entry read(String key, boolean withBody) {
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(directory.resolve(key + META_SUFFIX))) {
+            meta.load(in);
+            String body = withBody
+                    ? new String(Files.readAllBytes(directory.resolve(key + BODY_SUFFIX)), StandardCharsets.UTF_8)
+                    : null;
+            long storedAt = Long.parseLong(meta.getProperty("storedAt"));
+            return new Entry(new HttpResult(HttpResult.OK, body,
+                    meta.getProperty("etag"), meta.getProperty("lastModified")), storedAt);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warning("忽略损坏的缓存: " + key + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 打开缓存的body文件
+     *
+     * @return body, 文件已被删除时为null
+     */
+    private InputStream openBody(String key) {
+        try {
+            return Files.newInputStream(directory.resolve(key + BODY_SUFFIX));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 写入缓存, 先写临时文件再替换, 并发读取不会读到写了一半的文件.
+     * 元数据最后写入, 只有元数据存在时缓存才有效.
+     *
+     * @param result 响应头中的ETag和Last-Modified, 为null时没有
+     * @param body UTF-8的body, 为null时只更新元数据(body已写入或未变)
+     */
+    private void write(String key, String targetUrl, HttpResult result, long storedAt, byte[] body) {
+        Properties meta = new Properties();
+        meta.setProperty("url", targetUrl);
+        meta.setProperty("storedAt", String.valueOf(storedAt));
+        if (result != null && result.getEtag() != null) {
+            meta.setProperty("etag", result.getEtag());
+        }
+        if (result != null && result.getLastModified() != null) {
+            meta.setProperty("lastModified", result.getLastModified());
+        }
+        try {
+            if (body != null) {
+                replace(directory.resolve(key + BODY_SUFFIX), body);
+            }
+            writeMeta(key, meta);
+        } catch (IOException e) {
+            log.warning("写入缓存失败: " + targetUrl + ": " + e.getMessage());
+        }
+    }
+
+    private void writeMeta(String key, Properties meta) throws IOException {
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            meta.store(out, null);
+        }
+        Files.move(temp, directory.resolve(key + META_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void replace(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        Files.write(temp, content);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 边读边写入缓存, 读到末尾时替换body文件并写入元数据
+     */
+    private InputStream tee(InputStream body, String key, String targetUrl, long storedAt) {
+        return new TeeInputStream(body, directory, key, targetUrl, temp -> {
+            Files.move(temp, directory.resolve(key + BODY_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            write(key, targetUrl, null, storedAt, null);
+        });
+    }
+
+    private static byte[] utf8(String body) {
+        return (body == null ? "" : body).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class Entry {
+
+        private final HttpResult result;
+
+        private final long storedAt;
+
+        private Entry(HttpResult result, long storedAt) {
+            this.result = result;
+            this.storedAt = storedAt;
+        }
+    }
+
+}
@@ -1,8 +1,19 @@
 package holiday.service.impl;
 
+import cn.hutool.http.HttpRequest;
+import cn.hutool.http.HttpResponse;
 import cn.hutool.http.HttpUtil;
+import holiday.service.HttpBodies;
+import holiday.service.HttpBody;
+import holiday.service.HttpConfig;
+import holiday.service.HttpResult;
 import holiday.service.HttpService;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Map;
 
 /**
@@ -13,6 +24,21 @@ import java.util.Map;
  */
 public class HutoolHttpService implements HttpService {
 
+    private final HttpConfig config;
+
+    public HutoolHttpService() {
+        this(HttpConfig.builder().build());
+    }
+
+    /**
+     * 构造函数, 连接由JDK的keep-alive缓存复用
+     *
+     * @param config 配置
+     */
+    public HutoolHttpService(HttpConfig config) {
+        this.config = config;
+    }
+
     /**
      * 访问Url并获取body
      *
@@ -22,10 +48,102 @@ public class HutoolHttpService implements HttpService {
      */
     @Override
     public String getBody(String targetUrl, Map<String, Object> params) {
-        return HttpUtil.createGet(targetUrl, true)
+        return getBody(targetUrl, params, new HttpBody()).toString();
+    }
+
+    /**
+     * 访问Url并以流的形式获取body, 边下载边读取, 关闭流时释放连接
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body(UTF-8)
+     */
+    @Override
+    public InputStream getBodyStream(String targetUrl, Map<String, Object> params) {
+        HttpRequest request = createGet(targetUrl).form(params);
+        HttpResponse response = request.executeAsync();
+        try {
+            return new FilterInputStream(HttpBodies.toUtf8(openBody(request, response), response.header("Content-Type"))) {
+                @Override
+                public void close() throws IOException {
+                    // 先关闭解压流释放Inflater, 再释放连接
+                    try {
+                        super.close();
+                    } finally {
+                        response.close();
+                    }
+                }
+            };
+        } catch (IOException e) {
+            response.close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 访问Url并把body读入可复用的缓冲
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @param buffer 复用的缓冲
+     * @return buffer
+     */
+    @Override
+    public HttpBody getBody(String targetUrl, Map<String, Object> params, HttpBody buffer) {
+        HttpRequest request = createGet(targetUrl).form(params);
+        try (HttpResponse response = request.executeAsync()) {
+            return readBody(request, response, buffer);
+        }
+    }
+
+    /**
+     * 访问Url并获取响应
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @param headers 请求头
+     * @return 响应
+     */
+    @Override
+    public HttpResult getResponse(String targetUrl, Map<String, Object> params, Map<String, String> headers) {
+        HttpRequest request = createGet(targetUrl)
                 .form(params)
-                .execute()
-                .body();
+                .headerMap(headers, true);
+        try (HttpResponse response = request.executeAsync()) {
+            return new HttpResult(response.getStatus(), readBody(request, response, new HttpBody()).toString(),
+                    response.header("ETag"), response.header("Last-Modified"));
+        }
+    }
+
+    /**
+     * 不由Hutool读取完整body, 只取得已按Content-Encoding解压的流
+     * <p>
+     * Hutool只按无zlib头的deflate解压, 而多数服务器返回带zlib头的deflate,
+     * 所以deflate时直接从连接读取原始流自行解压. 此时Hutool的流尚未读取, 连接上的流是同一个.
+     */
+    private InputStream openBody(HttpRequest request, HttpResponse response) throws IOException {
+        if (response.isDeflate() && response.isOk()) {
+            return HttpBodies.decode(request.getConnection().getInputStream(), "deflate", config.getMaxBodyBytes());
+        }
+        InputStream in = response.bodyStream();
+        return HttpBodies.limit(in == null ? new ByteArrayInputStream(new byte[0]) : in, config.getMaxBodyBytes());
+    }
+
+    private HttpBody readBody(HttpRequest request, HttpResponse response, HttpBody buffer) {
+        try {
+            return HttpBodies.read(openBody(request, response), response.header("Content-Type"), buffer,
+                    config.getMaxBodyBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest createGet(String targetUrl) {
+        return HttpUtil.createGet(targetUrl, true)
+                .keepAlive(true)
+                .header("Accept-Encoding", HttpBodies.ACCEPT_ENCODING)
+                .setConnectionTimeout(config.getConnectTimeoutMillis())
+                .setReadTimeout(config.getReadTimeoutMillis());
     }
 
 }
@@ -1,12 +1,28 @@
 package holiday.service.impl;
 
+import holiday.service.HttpBodies;
+import holiday.service.HttpBody;
+import holiday.service.HttpConfig;
+import holiday.service.HttpResult;
 import holiday.service.HttpService;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 2024/9/10
@@ -16,28 +32,242 @@ import java.util.Map;
  */
 public class OkHttpService implements HttpService {
 
+    /**
+     * 线程安全, 所有请求共享连接池和调度线程
+     */
+    private final OkHttpClient client;
+
+    private final long maxBodyBytes;
+
+    public OkHttpService() {
+        this(HttpConfig.builder().build());
+    }
+
+    public OkHttpService(HttpConfig config) {
+        this(new OkHttpClient.Builder()
+                .dispatcher(dispatcher(config))
+                .connectionPool(new ConnectionPool(
+                        config.getMaxIdleConnections(), config.getKeepAliveSeconds(), TimeUnit.SECONDS))
+                .connectTimeout(config.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(config.getReadTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .build(), config.getMaxBodyBytes());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param client 共享的OkHttpClient
+     */
+    public OkHttpService(OkHttpClient client) {
+        this(client, HttpConfig.builder().build().getMaxBodyBytes());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param client 共享的OkHttpClient
+     * @param maxBodyBytes 解压后body的最大字节数
+     */
+    public OkHttpService(OkHttpClient client, long maxBodyBytes) {
+        this.client = client;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
     /**
      * 访问Url并获取body
      *
      * @param targetUrl 目标url
      * @param params 参数
      * @return body
+     * @throws UncheckedIOException 网络错误
      */
     @Override
     public String getBody(String targetUrl, Map<String, Object> params) {
-        String url = generateUrlParam(targetUrl, params);
-        Request request = new Request.Builder()
-                .get()
-                .url(url)
-                .build();
-        try (Response response = new OkHttpClient().newCall(request).execute()){
-            String result = null;
+        return getResponse(targetUrl, params, Collections.emptyMap()).getBody();
+    }
+
+    /**
+     * 异步访问Url并获取body, 基于OkHttp的enqueue, 不占用调用线程
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body, 网络错误时以UncheckedIOException结束
+     */
+    @Override
+    public CompletableFuture<String> getBodyAsync(String targetUrl, Map<String, Object> params) {
+        Call call = client.newCall(request(targetUrl, params, Collections.emptyMap()));
+        CompletableFuture<String> future = new CompletableFuture<>();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(new UncheckedIOException(e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (Response closeable = response) {
+                    future.complete(closeable.body() != null ? readBody(closeable, new HttpBody()).toString() : null);
+                } catch (IOException e) {
+                    future.completeExceptionally(new UncheckedIOException(e));
+                }
+            }
+        });
+        future.whenComplete((body, e) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 访问Url并以流的形式获取body, 边下载边解压和读取, 关闭流时释放连接
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body(UTF-8)
+     * @throws UncheckedIOException 网络错误
+     */
+    @Override
+    public InputStream getBodyStream(String targetUrl, Map<String, Object> params) {
+        try {
+            return stream(client.newCall(request(targetUrl, params, Collections.emptyMap())).execute());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 异步访问Url并以流的形式获取body, 基于OkHttp的enqueue, 收到响应头后完成
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body(UTF-8), 网络错误时以UncheckedIOException结束; 取消时取消请求, 已打开的流被关闭
+     */
+    @Override
+    public CompletableFuture<InputStream> getBodyStreamAsync(String targetUrl, Map<String, Object> params) {
+        Call call = client.newCall(request(targetUrl, params, Collections.emptyMap()));
+        CompletableFuture<InputStream> future = new CompletableFuture<>();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(new UncheckedIOException(e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                InputStream body;
+                try {
+                    body = stream(response);
+                } catch (IOException e) {
+                    future.completeExceptionally(new UncheckedIOException(e));
+                    return;
+                }
+                if (!future.complete(body)) {
+                    HttpBodies.closeQuietly(body);
+                }
+            }
+        });
+        future.whenComplete((body, e) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 把响应包装为解压并转为UTF-8的流, 关闭流时释放连接; 失败时关闭响应
+     */
+    private InputStream stream(Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            response.close();
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        try {
+            InputStream decoded = HttpBodies.decode(
+                    body.byteStream(), response.header("Content-Encoding"), maxBodyBytes);
+            return new FilterInputStream(HttpBodies.toUtf8(decoded, response.header("Content-Type"))) {
+                @Override
+                public void close() throws IOException {
+                    // 先关闭解压流释放Inflater, 再释放连接
+                    try {
+                        super.close();
+                    } finally {
+                        response.close();
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 访问Url并把body读入可复用的缓冲
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @param buffer 复用的缓冲
+     * @return buffer
+     */
+    @Override
+    public HttpBody getBody(String targetUrl, Map<String, Object> params, HttpBody buffer) {
+        try (Response response = client.newCall(request(targetUrl, params, Collections.emptyMap())).execute()) {
+            return readBody(response, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 访问Url并获取响应
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @param headers 请求头
+     * @return 响应
+     */
+    @Override
+    public HttpResult getResponse(String targetUrl, Map<String, Object> params, Map<String, String> headers) {
+        try (Response response = client.newCall(request(targetUrl, params, headers)).execute()){
+            String body = null;
             if (response.body() != null) {
-                result = response.body().string();
+                body = readBody(response, new HttpBody()).toString();
             }
-            return result;
-        } catch (IOException ignored) {}
-        return "";
+            return new HttpResult(response.code(), body, response.header("ETag"), response.header("Last-Modified"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 创建GET请求
+     * <p>
+     * 显式声明Accept-Encoding后OkHttp不再透明解压, 由{@link HttpBodies}同时处理gzip和deflate
+     */
+    private Request request(String targetUrl, Map<String, Object> params, Map<String, String> headers) {
+        Request.Builder builder = new Request.Builder()
+                .get()
+                .url(generateUrlParam(targetUrl, params))
+                .header("Accept-Encoding", HttpBodies.ACCEPT_ENCODING);
+        headers.forEach(builder::header);
+        return builder.build();
+    }
+
+    /**
+     * 解压并读取body, 识别字符集
+     */
+    private HttpBody readBody(Response response, HttpBody buffer) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            return buffer.readFrom(new ByteArrayInputStream(new byte[0]), 0);
+        }
+        try (InputStream in = HttpBodies.decode(body.byteStream(), response.header("Content-Encoding"), maxBodyBytes)) {
+            return HttpBodies.read(in, response.header("Content-Type"), buffer, maxBodyBytes);
+        }
     }
 
     /**
@@ -65,4 +295,11 @@ public class OkHttpService implements HttpService {
 
         return sb.toString();
     }
+
+    private static Dispatcher dispatcher(HttpConfig config) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), config.getMaxRequestsPerHost()));
+        dispatcher.setMaxRequestsPerHost(config.getMaxRequestsPerHost());
+        return dispatcher;
+    }
 }
@@ -0,0 +1,213 @@
+package holiday.service.impl;
+
+import holiday.service.HttpBodies;
+import holiday.service.HttpBody;
+import holiday.service.HttpResult;
+import holiday.service.HttpService;
+import holiday.util.CommonUtil;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 按host限速的HttpService
+ * <p>
+ * 同一host的请求之间至少间隔固定时间, 多个线程共享同一个实例时限速对所有线程生效.
+ * {@link holiday.factory.HttpServiceFactory}把它放在实际的http实现外、重试和对冲之内, 每次重试和对冲请求都占用一个时间点.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+public class RateLimitedHttpService implements HttpService {
+
+    /**
+     * 异步请求在此延迟到预约的时间点, 不占用等待线程
+     */
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "holiday-rate-limit");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final HttpService delegate;
+
+    private final long intervalNanos;
+
+    /**
+     * 每个host下一个可用的时间点(nanoTime)
+     */
+    private final Map<String, AtomicLong> nextSlots = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param delegate 实际访问网络的HttpService
+     * @param requestsPerSecond 每个host每秒的最大请求数
+     */
+    public RateLimitedHttpService(HttpService delegate, double requestsPerSecond) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("requestsPerSecond必须大于0: " + requestsPerSecond);
+        }
+        this.delegate = delegate;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+    }
+
+    /**
+     * 访问Url并获取body
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public String getBody(String targetUrl, Map<String, Object> params) {
+        acquire(targetUrl);
+        return delegate.getBody(targetUrl, params);
+    }
+
+    /**
+     * 异步访问Url并获取body, 等待限速时不占用线程
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public CompletableFuture<String> getBodyAsync(String targetUrl, Map<String, Object> params) {
+        return delay(targetUrl, () -> delegate.getBodyAsync(targetUrl, params), body -> {
+        });
+    }
+
+    /**
+     * 异步访问Url并以流的形式获取body, 等待限速时不占用线程
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public CompletableFuture<InputStream> getBodyStreamAsync(String targetUrl, Map<String, Object> params) {
+        return delay(targetUrl, () -> delegate.getBodyStreamAsync(targetUrl, params), HttpBodies::closeQuietly);
+    }
+
+    /**
+     * 访问Url并以流的形式获取body
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public InputStream getBodyStream(String targetUrl, Map<String, Object> params) {
+        acquire(targetUrl);
+        return delegate.getBodyStream(targetUrl, params);
+    }
+
+    /**
+     * 访问Url并把body读入可复用的缓冲
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @param buffer 复用的缓冲
+     * @return buffer
+     */
+    @Override
+    public HttpBody getBody(String targetUrl, Map<String, Object> params, HttpBody buffer) {
+        acquire(targetUrl);
+        return delegate.getBody(targetUrl, params, buffer);
+    }
+
+    /**
+     * 访问Url并获取响应
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @param headers 请求头
+     * @return 响应
+     */
+    @Override
+    public HttpResult getResponse(String targetUrl, Map<String, Object> params, Map<String, String> headers) {
+        acquire(targetUrl);
+        return delegate.getResponse(targetUrl, params, headers);
+    }
+
+    /**
+     * 预约host的下一个时间点, 到时再发出异步请求
+     *
+     * @param discard 调用方已取消时丢弃迟到的结果
+     */
+    private <T> CompletableFuture<T> delay(
+            String targetUrl, Supplier<CompletableFuture<T>> request, Consumer<T> discard) {
+        long waitNanos = reserve(targetUrl);
+        if (waitNanos <= 0) {
+            return request.get();
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        SCHEDULER.schedule(() -> {
+            // 等待期间调用方已取消(如截止时间已到)时不再发出请求
+            if (future.isDone()) {
+                return;
+            }
+            CompletableFuture<T> call;
+            try {
+                call = request.get();
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            future.whenComplete((body, e) -> call.cancel(true));
+            call.whenComplete((body, e) -> {
+                if (e != null) {
+                    future.completeExceptionally(e);
+                } else if (!future.complete(body)) {
+                    discard.accept(body);
+                }
+            });
+        }, waitNanos, TimeUnit.NANOSECONDS);
+        return future;
+    }
+
+    /**
+     * 预约host的下一个时间点并等待
+     */
+    private void acquire(String targetUrl) {
+        long waitNanos = reserve(targetUrl);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("等待限速时被中断", e);
+            }
+        }
+    }
+
+    /**
+     * 预约host的下一个时间点
+     *
+     * @return 需要等待的纳秒数
+     */
+    private long reserve(String targetUrl) {
+        AtomicLong nextSlot = nextSlots.computeIfAbsent(CommonUtil.hostOf(targetUrl), host -> new AtomicLong(System.nanoTime()));
+        long slot;
+        while (true) {
+            long now = System.nanoTime();
+            long next = nextSlot.get();
+            slot = Math.max(now, next);
+            if (nextSlot.compareAndSet(next, slot + intervalNanos)) {
+                break;
+            }
+        }
+        return slot - System.nanoTime();
+    }
+
+}
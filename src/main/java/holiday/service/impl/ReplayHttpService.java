@@ -0,0 +1,250 @@
+package holiday.service.impl;
+
+import holiday.service.HttpBodies;
+import holiday.service.HttpResult;
+import holiday.service.HttpService;
+import lombok.extern.java.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 录制/回放的HttpService
+ * <p>
+ * 回放模式只读取目录中录制的响应, 不访问网络, 没有录制的请求抛出{@link IllegalStateException}.
+ * 录制模式({@link #recording(HttpService, Path)})把请求交给实际的HttpService, 并保存200响应.
+ * 异步和流式调用直接使用实际HttpService的对应方法(流边读边保存, 读到末尾才保存), 这些调用看不到状态码,
+ * 与直接调用时一样, 保存的是调用成功返回的body.
+ * 与{@link CachingHttpService}相同, 以url和排序后的参数为key.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Log
+public class ReplayHttpService implements HttpService {
+
+    private static final String BODY_SUFFIX = ".body";
+
+    private static final String META_SUFFIX = ".meta";
+
+    /**
+     * 录制时实际访问网络的HttpService, 回放时为null
+     */
+    private final HttpService delegate;
+
+    private final Path directory;
+
+    /**
+     * 回放模式
+     *
+     * @param directory 录制目录
+     */
+    public ReplayHttpService(Path directory) {
+        this(null, directory);
+    }
+
+    private ReplayHttpService(HttpService delegate, Path directory) {
+        this.delegate = delegate;
+        this.directory = directory;
+        if (delegate != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("无法创建录制目录: " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * 录制模式
+     *
+     * @param delegate 实际访问网络的HttpService
+     * @param directory 录制目录
+     * @return HttpService
+     */
+    public static ReplayHttpService recording(HttpService delegate, Path directory) {
+        return new ReplayHttpService(delegate, directory);
+    }
+
+    /**
+     * 是否为录制模式
+     *
+     * @return 是否录制
+     */
+    public boolean isRecording() {
+        return delegate != null;
+    }
+
+    /**
+     * 访问Url并获取body, 录制时通过{@link #getResponse}取得实际状态码, 只保存200响应
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public String getBody(String targetUrl, Map<String, Object> params) {
+        return getResponse(targetUrl, params, Collections.emptyMap()).getBody();
+    }
+
+    /**
+     * 异步访问Url并获取body, 录制时使用实际HttpService的异步调用
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public CompletableFuture<String> getBodyAsync(String targetUrl, Map<String, Object> params) {
+        if (delegate == null) {
+            return HttpService.super.getBodyAsync(targetUrl, params);
+        }
+        CompletableFuture<String> call = delegate.getBodyAsync(targetUrl, params);
+        CompletableFuture<String> result = call.thenApply(body -> {
+            record(targetUrl, params, new HttpResult(HttpResult.OK, body, null, null));
+            return body;
+        });
+        result.whenComplete((body, e) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 访问Url并以流的形式获取body, 录制时边读边保存
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public InputStream getBodyStream(String targetUrl, Map<String, Object> params) {
+        if (delegate == null) {
+            return HttpService.super.getBodyStream(targetUrl, params);
+        }
+        return tee(delegate.getBodyStream(targetUrl, params), targetUrl, params);
+    }
+
+    /**
+     * 异步访问Url并以流的形式获取body, 录制时使用实际HttpService的异步调用并边读边保存
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public CompletableFuture<InputStream> getBodyStreamAsync(String targetUrl, Map<String, Object> params) {
+        if (delegate == null) {
+            return HttpService.super.getBodyStreamAsync(targetUrl, params);
+        }
+        return HttpBodies.thenWrap(delegate.getBodyStreamAsync(targetUrl, params),
+                body -> tee(body, targetUrl, params));
+    }
+
+    /**
+     * 访问Url并获取响应, 回放时忽略请求头
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @param headers 请求头
+     * @return 响应
+     */
+    @Override
+    public HttpResult getResponse(String targetUrl, Map<String, Object> params, Map<String, String> headers) {
+        if (delegate == null) {
+            return replay(targetUrl, params);
+        }
+        HttpResult result = delegate.getResponse(targetUrl, params, headers);
+        if (result.getStatus() == HttpResult.OK) {
+            record(targetUrl, params, result);
+        }
+        return result;
+    }
+
+    private HttpResult replay(String targetUrl, Map<String, Object> params) {
+        String key = CachingHttpService.key(targetUrl, params);
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(directory.resolve(key + META_SUFFIX))) {
+            meta.load(in);
+            String body = new String(Files.readAllBytes(directory.resolve(key + BODY_SUFFIX)), StandardCharsets.UTF_8);
+            return new HttpResult(Integer.parseInt(meta.getProperty("status", String.valueOf(HttpResult.OK))),
+                    body, meta.getProperty("etag"), meta.getProperty("lastModified"));
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("没有录制的响应: " + targetUrl + " " + sorted(params));
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法读取录制的响应: " + targetUrl, e);
+        }
+    }
+
+    /**
+     * 保存响应, 先写临时文件再替换
+     */
+    private void record(String targetUrl, Map<String, Object> params, HttpResult result) {
+        String key = CachingHttpService.key(targetUrl, params);
+        try {
+            String body = result.getBody() == null ? "" : result.getBody();
+            Path bodyTemp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(bodyTemp, body.getBytes(StandardCharsets.UTF_8));
+            save(targetUrl, params, result, bodyTemp);
+        } catch (IOException e) {
+            log.warning("录制响应失败: " + targetUrl + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 边读边保存, 读到末尾时按200响应保存
+     */
+    private InputStream tee(InputStream body, String targetUrl, Map<String, Object> params) {
+        return new TeeInputStream(body, directory, CachingHttpService.key(targetUrl, params), targetUrl,
+                temp -> save(targetUrl, params, new HttpResult(HttpResult.OK, null, null, null), temp));
+    }
+
+    /**
+     * 把body临时文件移到位, 元数据最后写入
+     *
+     * @param result 状态码和响应头, 忽略其中的body
+     * @param bodyTemp 包含body的临时文件
+     */
+    private void save(String targetUrl, Map<String, Object> params, HttpResult result, Path bodyTemp)
+            throws IOException {
+        String key = CachingHttpService.key(targetUrl, params);
+        Properties meta = new Properties();
+        meta.setProperty("url", targetUrl);
+        meta.setProperty("params", sorted(params).toString());
+        meta.setProperty("status", String.valueOf(result.getStatus()));
+        if (result.getEtag() != null) {
+            meta.setProperty("etag", result.getEtag());
+        }
+        if (result.getLastModified() != null) {
+            meta.setProperty("lastModified", result.getLastModified());
+        }
+        Files.move(bodyTemp, directory.resolve(key + BODY_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Path metaTemp = Files.createTempFile(directory, key, ".tmp");
+        try (OutputStream out = Files.newOutputStream(metaTemp)) {
+            meta.store(out, null);
+        }
+        Files.move(metaTemp, directory.resolve(key + META_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Map<String, Object> sorted(Map<String, Object> params) {
+        return params == null ? Collections.emptyMap() : new TreeMap<>(params);
+    }
+
+}
@@ -0,0 +1,589 @@
+package holiday.service.impl;
+
+import holiday.metrics.Histogram;
+import holiday.service.HttpBodies;
+import holiday.service.HttpConfig;
+import holiday.service.HttpResult;
+import holiday.service.HttpService;
+import holiday.util.CommonUtil;
+import lombok.extern.java.Log;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 截止时间、重试、对冲请求和按host熔断
+ * <p>
+ * 网络错误(UncheckedIOException)按指数退避加随机抖动重试, 其他异常直接抛出.
+ * {@link #getBodyAsync}和{@link #getBodyStreamAsync}在截止时间到达时立即失败并取消进行中的请求(包括对冲请求);
+ * 开启对冲时, 请求超过该host成功延迟的分位数仍未返回则再发一次, 取先成功的结果, 输掉的流被关闭.
+ * 流的截止时间同样覆盖读取: 到达时关闭流, 之后的读取抛出SocketTimeoutException.
+ * {@link #getBody}、{@link #getResponse}和{@link #getBodyStream}是阻塞调用, 在调用线程上执行,
+ * 不等待共享线程池(调用方本身可能就在池中), 不对冲, 只在两次尝试之间检查截止时间,
+ * 进行中的请求由底层实现的连接和读取超时限制(getBodyStream返回的流除外); getResponse还会重试5xx和429.
+ * 同一host连续失败达到阈值后熔断, 熔断期内的请求直接失败, 期满后放行一个试探请求,
+ * 试探请求被取消或抛出非网络错误时释放, 之后的请求可以再次试探.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Log
+public class ResilientHttpService implements HttpService {
+
+    /**
+     * 重试、对冲和截止时间在此调度, 不占用等待线程
+     */
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "holiday-resilience");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final HttpService delegate;
+
+    private final HttpConfig config;
+
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数, 使用config中的重试、截止时间、对冲和熔断配置
+     *
+     * @param delegate 实际访问网络的HttpService
+     * @param config 配置
+     */
+    public ResilientHttpService(HttpService delegate, HttpConfig config) {
+        if (config.getMaxAttempts() < 1) {
+            throw new IllegalArgumentException("maxAttempts必须大于0: " + config.getMaxAttempts());
+        }
+        this.delegate = delegate;
+        this.config = config;
+    }
+
+    /**
+     * 访问Url并获取body
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     * @throws UncheckedIOException 网络错误重试耗尽、超过截止时间或熔断
+     */
+    @Override
+    public String getBody(String targetUrl, Map<String, Object> params) {
+        return executeBlocking(targetUrl, () -> delegate.getBody(targetUrl, params), false);
+    }
+
+    /**
+     * 异步访问Url并获取body, 取消返回的future会取消进行中的请求
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public CompletableFuture<String> getBodyAsync(String targetUrl, Map<String, Object> params) {
+        Call<String> call = new Call<>(targetUrl, host(targetUrl), () -> delegate.getBodyAsync(targetUrl, params),
+                body -> {
+                });
+        call.run(deadlineNanos());
+        return call.result;
+    }
+
+    /**
+     * 异步访问Url并以流的形式获取body, 收到响应头后完成; 可以对冲, 截止时间覆盖打开和读取
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body, 取消返回的future会取消进行中的请求
+     */
+    @Override
+    public CompletableFuture<InputStream> getBodyStreamAsync(String targetUrl, Map<String, Object> params) {
+        Call<InputStream> call = new Call<>(targetUrl, host(targetUrl),
+                () -> delegate.getBodyStreamAsync(targetUrl, params), HttpBodies::closeQuietly);
+        long deadline = deadlineNanos();
+        call.run(deadline);
+        if (deadline == Long.MAX_VALUE) {
+            return call.result;
+        }
+        return HttpBodies.thenWrap(call.result, body -> new DeadlineInputStream(body, targetUrl, deadline));
+    }
+
+    /**
+     * 访问Url并以流的形式获取body, 只重试打开流时的错误, 截止时间到达时关闭流
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @return body
+     */
+    @Override
+    public InputStream getBodyStream(String targetUrl, Map<String, Object> params) {
+        long deadline = deadlineNanos();
+        InputStream body = executeBlocking(targetUrl, () -> delegate.getBodyStream(targetUrl, params), false);
+        return deadline == Long.MAX_VALUE ? body : new DeadlineInputStream(body, targetUrl, deadline);
+    }
+
+    /**
+     * 访问Url并获取响应, 5xx和429也会重试, 重试耗尽时返回最后的响应
+     *
+     * @param targetUrl 目标url
+     * @param params 参数
+     * @param headers 请求头
+     * @return 响应
+     */
+    @Override
+    public HttpResult getResponse(String targetUrl, Map<String, Object> params, Map<String, String> headers) {
+        return executeBlocking(targetUrl, () -> delegate.getResponse(targetUrl, params, headers), true);
+    }
+
+    /**
+     * 阻塞调用的重试和熔断
+     */
+    private <T> T executeBlocking(String targetUrl, Supplier<T> request, boolean retryStatus) {
+        Host host = host(targetUrl);
+        long deadline = deadlineNanos();
+        for (int attempt = 1; ; attempt++) {
+            Permit permit = host.breaker.tryAcquire();
+            if (permit == Permit.DENIED) {
+                throw circuitOpen(targetUrl);
+            }
+            long start = System.nanoTime();
+            T result;
+            try {
+                result = request.get();
+            } catch (RuntimeException | Error e) {
+                if (!(e instanceof UncheckedIOException)) {
+                    host.breaker.release(permit);
+                    throw e;
+                }
+                host.breaker.onFailure();
+                long backoff = backoffNanos(attempt);
+                if (attempt >= config.getMaxAttempts() || System.nanoTime() + backoff >= deadline) {
+                    throw (UncheckedIOException) e;
+                }
+                log.warning("请求失败, 第" + attempt + "次重试: " + targetUrl + ": " + e.getMessage());
+                sleep(backoff);
+                continue;
+            }
+            if (retryStatus && isRetryableStatus((HttpResult) result)) {
+                host.breaker.onFailure();
+                long backoff = backoffNanos(attempt);
+                if (attempt >= config.getMaxAttempts() || System.nanoTime() + backoff >= deadline) {
+                    return result;
+                }
+                sleep(backoff);
+                continue;
+            }
+            host.breaker.onSuccess();
+            host.latency.record(System.nanoTime() - start);
+            return result;
+        }
+    }
+
+    /**
+     * 从现在起算的截止时间(nanoTime), 不限制时为Long.MAX_VALUE
+     */
+    private long deadlineNanos() {
+        return config.getDeadlineMillis() > 0
+                ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getDeadlineMillis())
+                : Long.MAX_VALUE;
+    }
+
+    /**
+     * 第attempt次失败后的退避时间: [0, min(最大退避, 初始退避 * 2^(attempt-1)))内的随机值
+     */
+    private long backoffNanos(int attempt) {
+        long ceiling = config.getRetryBackoffMillis() << Math.min(attempt - 1, 20);
+        ceiling = Math.min(ceiling, config.getMaxRetryBackoffMillis());
+        return ceiling <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(ceiling));
+    }
+
+    /**
+     * 对冲延迟, 样本不足或未开启时为-1
+     */
+    private long hedgeDelayNanos(Host host) {
+        if (!config.isHedge() || host.latency.getCount() < config.getHedgeMinSamples()) {
+            return -1;
+        }
+        return host.latency.quantileNanos(config.getHedgeQuantile());
+    }
+
+    private Host host(String targetUrl) {
+        return hosts.computeIfAbsent(CommonUtil.hostOf(targetUrl), key -> new Host(
+                config.getCircuitBreakerThreshold(),
+                TimeUnit.MILLISECONDS.toNanos(config.getCircuitBreakerOpenMillis())));
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRetryableStatus(HttpResult result) {
+        return result.getStatus() >= 500 || result.getStatus() == TOO_MANY_REQUESTS;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    private static UncheckedIOException deadlineExceeded(String targetUrl) {
+        return new UncheckedIOException(deadlineTimeout(targetUrl));
+    }
+
+    private static SocketTimeoutException deadlineTimeout(String targetUrl) {
+        return new SocketTimeoutException("超过截止时间: " + targetUrl);
+    }
+
+    private static UncheckedIOException circuitOpen(String targetUrl) {
+        return new UncheckedIOException(new IOException("熔断中: " + CommonUtil.hostOf(targetUrl)));
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待重试时被中断", e);
+        }
+    }
+
+    /**
+     * 一次异步调用, 包括所有重试和对冲请求
+     */
+    private final class Call<T> {
+
+        private final String targetUrl;
+
+        private final Host host;
+
+        private final Supplier<CompletableFuture<T>> request;
+
+        /**
+         * 丢弃没有被采用的结果, 如输掉对冲或截止时间后才到达的流
+         */
+        private final Consumer<T> discard;
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Call(String targetUrl, Host host, Supplier<CompletableFuture<T>> request, Consumer<T> discard) {
+            this.targetUrl = targetUrl;
+            this.host = host;
+            this.request = request;
+            this.discard = discard;
+        }
+
+        /**
+         * 开始第一次尝试, 截止时间到达时以超时结束
+         */
+        private void run(long deadline) {
+            if (deadline != Long.MAX_VALUE) {
+                ScheduledFuture<?> timeout = SCHEDULER.schedule(
+                        () -> result.completeExceptionally(deadlineExceeded(targetUrl)),
+                        deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                result.whenComplete((body, e) -> timeout.cancel(false));
+            }
+            attempt(1);
+        }
+
+        /**
+         * 第attempt次尝试, 可能包含一个对冲请求
+         */
+        private void attempt(int attempt) {
+            if (result.isDone()) {
+                return;
+            }
+            Permit permit = host.breaker.tryAcquire();
+            if (permit == Permit.DENIED) {
+                result.completeExceptionally(circuitOpen(targetUrl));
+                return;
+            }
+            CompletableFuture<T> race = new CompletableFuture<>();
+            AtomicInteger pending = new AtomicInteger(1);
+            CompletableFuture<T> primary = send(race, pending, permit);
+            long hedgeDelay = hedgeDelayNanos(host);
+            if (hedgeDelay >= 0) {
+                ScheduledFuture<?> hedge = SCHEDULER.schedule(() -> {
+                    Permit hedgePermit;
+                    if (!race.isDone() && (hedgePermit = host.breaker.tryAcquire()) != Permit.DENIED) {
+                        pending.incrementAndGet();
+                        CompletableFuture<T> hedged = send(race, pending, hedgePermit);
+                        race.whenComplete((body, e) -> hedged.cancel(true));
+                    }
+                }, hedgeDelay, TimeUnit.NANOSECONDS);
+                race.whenComplete((body, e) -> hedge.cancel(false));
+            }
+            // 截止时间到达或调用方取消时, 取消进行中的请求; 取消race会同时取消对冲请求
+            result.whenComplete((body, e) -> {
+                race.cancel(false);
+                primary.cancel(true);
+            });
+            race.whenComplete((body, e) -> {
+                if (e == null) {
+                    if (!result.complete(body)) {
+                        discard.accept(body);
+                    }
+                    return;
+                }
+                Throwable cause = unwrap(e);
+                long backoff = backoffNanos(attempt);
+                if (!isRetryable(cause) || attempt >= config.getMaxAttempts() || result.isDone()) {
+                    result.completeExceptionally(cause);
+                    return;
+                }
+                log.warning("请求失败, 第" + attempt + "次重试: " + targetUrl + ": " + cause.getMessage());
+                SCHEDULER.schedule(() -> attempt(attempt + 1), backoff, TimeUnit.NANOSECONDS);
+            });
+        }
+
+        /**
+         * 发出一个请求, 成功时完成race, 所有请求都失败时以最后的错误完成race.
+         * 被取消的请求不计为失败, 但要释放它占用的试探
+         */
+        private CompletableFuture<T> send(CompletableFuture<T> race, AtomicInteger pending, Permit permit) {
+            long start = System.nanoTime();
+            CompletableFuture<T> future = start(request);
+            future.whenComplete((body, e) -> {
+                if (e == null) {
+                    host.breaker.onSuccess();
+                    host.latency.record(System.nanoTime() - start);
+                    if (!race.complete(body)) {
+                        discard.accept(body);
+                    }
+                    return;
+                }
+                if (future.isCancelled()) {
+                    host.breaker.release(permit);
+                } else {
+                    host.breaker.onFailure();
+                }
+                if (pending.decrementAndGet() == 0) {
+                    race.completeExceptionally(e);
+                }
+            });
+            return future;
+        }
+    }
+
+    /**
+     * 发出请求, 同步抛出的异常也以失败的future返回
+     */
+    private static <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> request) {
+        try {
+            return request.get();
+        } catch (RuntimeException e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+     * 截止时间到达时关闭的流, 关闭会中断阻塞中的读取, 之后的读取抛出SocketTimeoutException
+     */
+    private static final class DeadlineInputStream extends FilterInputStream {
+
+        private final String targetUrl;
+
+        private final ScheduledFuture<?> timeout;
+
+        private volatile boolean expired;
+
+        private DeadlineInputStream(InputStream in, String targetUrl, long deadline) {
+            super(in);
+            this.targetUrl = targetUrl;
+            this.timeout = SCHEDULER.schedule(this::expire, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        private void expire() {
+            expired = true;
+            HttpBodies.closeQuietly(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkExpired();
+            try {
+                return super.read();
+            } catch (IOException | RuntimeException e) {
+                throw expiredOr(e);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkExpired();
+            try {
+                return super.read(b, off, len);
+            } catch (IOException | RuntimeException e) {
+                throw expiredOr(e);
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            checkExpired();
+            try {
+                return super.skip(n);
+            } catch (IOException | RuntimeException e) {
+                throw expiredOr(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            timeout.cancel(false);
+            super.close();
+        }
+
+        private void checkExpired() throws IOException {
+            if (expired) {
+                throw deadlineTimeout(targetUrl);
+            }
+        }
+
+        /**
+         * 被截止时间关闭的流在读取时可能抛出各种异常(如解压器已释放), 统一为超时
+         */
+        private IOException expiredOr(Exception e) throws IOException {
+            if (!expired) {
+                if (e instanceof RuntimeException) {
+                    throw (RuntimeException) e;
+                }
+                return (IOException) e;
+            }
+            IOException timeout = deadlineTimeout(targetUrl);
+            timeout.initCause(e);
+            return timeout;
+        }
+    }
+
+    /**
+     * host的状态
+     */
+    private static final class Host {
+
+        private final CircuitBreaker breaker;
+
+        /**
+         * 成功请求的延迟
+         */
+        private final Histogram latency = new Histogram();
+
+        private Host(int threshold, long openNanos) {
+            this.breaker = new CircuitBreaker(threshold, openNanos);
+        }
+    }
+
+    /**
+     * 熔断器的放行结果
+     */
+    private enum Permit {
+
+        /**
+         * 熔断中, 不放行
+         */
+        DENIED,
+
+        /**
+         * 未熔断
+         */
+        NORMAL,
+
+        /**
+         * 熔断期满后的试探请求, 结束时必须通过onSuccess、onFailure或release释放
+         */
+        PROBE
+    }
+
+    /**
+     * 连续失败计数熔断器
+     */
+    private static final class CircuitBreaker {
+
+        private final int threshold;
+
+        private final long openNanos;
+
+        private int failures;
+
+        private boolean open;
+
+        private long openedAt;
+
+        /**
+         * 熔断期满后是否已放行试探请求
+         */
+        private boolean probing;
+
+        private CircuitBreaker(int threshold, long openNanos) {
+            this.threshold = threshold;
+            this.openNanos = openNanos;
+        }
+
+        synchronized Permit tryAcquire() {
+            if (!open) {
+                return Permit.NORMAL;
+            }
+            if (probing || System.nanoTime() - openedAt < openNanos) {
+                return Permit.DENIED;
+            }
+            probing = true;
+            return Permit.PROBE;
+        }
+
+        /**
+         * 请求既没有成功也没有网络错误(被取消或抛出其他异常)时, 释放它占用的试探, 不影响失败计数
+         */
+        synchronized void release(Permit permit) {
+            if (permit == Permit.PROBE) {
+                probing = false;
+            }
+        }
+
+        synchronized void onSuccess() {
+            failures = 0;
+            open = false;
+            probing = false;
+        }
+
+        synchronized void onFailure() {
+            if (open) {
+                // 试探失败, 重新熔断
+                openedAt = System.nanoTime();
+                probing = false;
+                return;
+            }
+            if (threshold > 0 && ++failures >= threshold) {
+                open = true;
+                openedAt = System.nanoTime();
+                log.warning("连续失败" + failures + "次, 熔断" + TimeUnit.NANOSECONDS.toMillis(openNanos) + "ms");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+package holiday.service.impl;
+
+import holiday.service.HttpBodies;
+import lombok.extern.java.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 边读边写入临时文件的流
+ * <p>
+ * 读到末尾时把临时文件交给{@link Commit}保存. 读者没有读到末尾就关闭时(如提取完正文就停止)先读完剩余内容再保存;
+ * 剩余内容读取失败、跳过或写入失败时删除临时文件, 不影响读取.
+ * {@link CachingHttpService}和{@link ReplayHttpService}用它保存流式读取的响应. 实例不是线程安全的.
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@Log
+final class TeeInputStream extends FilterInputStream {
+
+    private final Path directory;
+
+    private final String prefix;
+
+    private final String targetUrl;
+
+    private final Commit commit;
+
+    private final byte[] single = new byte[1];
+
+    private Path temp;
+
+    private OutputStream out;
+
+    private boolean finished;
+
+    /**
+     * 构造函数
+     *
+     * @param in 原始流
+     * @param directory 临时文件目录, 应与最终文件在同一目录以便原子替换
+     * @param prefix 临时文件名前缀
+     * @param targetUrl url, 用于日志
+     * @param commit 读到末尾时保存临时文件
+     */
+    TeeInputStream(InputStream in, Path directory, String prefix, String targetUrl, Commit commit) {
+        super(in);
+        this.directory = directory;
+        this.prefix = prefix;
+        this.targetUrl = targetUrl;
+        this.commit = commit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b < 0) {
+            commit();
+        } else {
+            single[0] = (byte) b;
+            save(single, 0, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n < 0) {
+            commit();
+        } else {
+            save(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        abandon();
+        return super.skip(n);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            abandon();
+            super.close();
+        }
+    }
+
+    /**
+     * 读完剩余内容, 读到末尾时提交
+     */
+    private void drain() {
+        byte[] buffer = new byte[8192];
+        try {
+            while (!finished && read(buffer, 0, buffer.length) >= 0) {
+                // read负责写入临时文件
+            }
+        } catch (IOException | RuntimeException e) {
+            log.fine("读取剩余内容失败, 不保存: " + targetUrl + ": " + e.getMessage());
+        }
+    }
+
+    private void save(byte[] b, int off, int len) {
+        if (finished) {
+            return;
+        }
+        try {
+            if (out == null) {
+                temp = Files.createTempFile(directory, prefix, ".tmp");
+                out = new BufferedOutputStream(Files.newOutputStream(temp));
+            }
+            out.write(b, off, len);
+        } catch (IOException e) {
+            log.warning("保存响应失败: " + targetUrl + ": " + e.getMessage());
+            abandon();
+        }
+    }
+
+    private void commit() {
+        if (finished) {
+            return;
+        }
+        try {
+            if (out == null) {
+                temp = Files.createTempFile(directory, prefix, ".tmp");
+            } else {
+                out.close();
+                out = null;
+            }
+            commit.commit(temp);
+            temp = null;
+            finished = true;
+        } catch (IOException e) {
+            log.warning("保存响应失败: " + targetUrl + ": " + e.getMessage());
+            abandon();
+        }
+    }
+
+    private void abandon() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        HttpBodies.closeQuietly(out);
+        if (temp != null) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // 临时文件, 删除失败不影响读取
+            }
+        }
+    }
+
+    /**
+     * 保存读完的临时文件
+     */
+    interface Commit {
+
+        /**
+         * 保存
+         *
+         * @param temp 包含完整body的临时文件, 保存后应移走
+         * @throws IOException 保存失败, 临时文件随后被删除
+         */
+        void commit(Path temp) throws IOException;
+    }
+
+}
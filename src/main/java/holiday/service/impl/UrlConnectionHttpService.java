@@ -1,16 +1,21 @@
 package holiday.service.impl;
 
+import holiday.service.HttpBodies;
+import holiday.service.HttpBody;
+import holiday.service.HttpConfig;
+import holiday.service.HttpResult;
 import holiday.service.HttpService;
 import lombok.extern.java.Log;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.Collections;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * 2024/9/10
@@ -24,6 +29,20 @@ public class UrlConnectionHttpService implements HttpService {
     // 定义最大重定向次数防止无限重定向
     private static final int MAX_REDIRECTS = 5;
 
+    private final HttpConfig config;
+
+    public UrlConnectionHttpService() {
+        this(HttpConfig.builder().build());
+    }
+
+    /**
+     * Connections are reused by the JDK keep-alive cache as long as every body is fully read and closed
+     *
+     * @param config Http configuration
+     */
+    public UrlConnectionHttpService(HttpConfig config) {
+        this.config = config;
+    }
 
     /**
      * Visit URL and retrieve the response body
@@ -31,19 +50,100 @@ public class UrlConnectionHttpService implements HttpService {
      * @param targetUrl The URL to be accessed
      * @param params Parameters to be appended to the URL
      * @return Response body as string
+     * @throws UncheckedIOException on network errors, so that callers can retry
      */
     @Override
     public String getBody(String targetUrl, Map<String, Object> params) {
+        return getResponse(targetUrl, params, Collections.emptyMap()).getBody();
+    }
+
+    /**
+     * Visit URL and retrieve the response, sending the given request headers
+     *
+     * @param targetUrl The URL to be accessed
+     * @param params Parameters to be appended to the URL
+     * @param headers Request headers
+     * @return Response
+     */
+    @Override
+    public HttpResult getResponse(String targetUrl, Map<String, Object> params, Map<String, String> headers) {
         String urlWithParams = generateUrlParam(targetUrl, params);
         try {
-            return followRedirects(urlWithParams, 0);
+            return followRedirects(urlWithParams, headers, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Visit URL and stream the decompressed response body as UTF-8
+     *
+     * @param targetUrl The URL to be accessed
+     * @param params Parameters to be appended to the URL
+     * @return Response body, empty if the status is not 200
+     */
+    @Override
+    public InputStream getBodyStream(String targetUrl, Map<String, Object> params) {
+        try {
+            HttpURLConnection conn = connect(generateUrlParam(targetUrl, params), Collections.emptyMap(), 0);
+            if (conn.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                log.warning("GET request not worked, response code: " + conn.getResponseCode());
+                return new ByteArrayInputStream(new byte[0]);
+            }
+            return HttpBodies.toUtf8(openBody(conn), conn.getContentType());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Visit URL and read the decompressed response body into a reusable buffer
+     *
+     * @param targetUrl The URL to be accessed
+     * @param params Parameters to be appended to the URL
+     * @param buffer Buffer to be reused
+     * @return buffer, empty if the status is not 200
+     */
+    @Override
+    public HttpBody getBody(String targetUrl, Map<String, Object> params, HttpBody buffer) {
+        try {
+            HttpURLConnection conn = connect(generateUrlParam(targetUrl, params), Collections.emptyMap(), 0);
+            if (conn.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                log.warning("GET request not worked, response code: " + conn.getResponseCode());
+                return buffer.readFrom(new ByteArrayInputStream(new byte[0]), 0);
+            }
+            try (InputStream in = openBody(conn)) {
+                return HttpBodies.read(in, conn.getContentType(), buffer, config.getMaxBodyBytes());
+            }
         } catch (IOException e) {
-            log.severe("Error following redirects: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpResult followRedirects(String url, Map<String, String> headers, int redirectCount) throws IOException {
+        HttpURLConnection conn = connect(url, headers, redirectCount);
+        int responseCode = conn.getResponseCode();
+        String etag = conn.getHeaderField("ETag");
+        String lastModified = conn.getHeaderField("Last-Modified");
+        if (responseCode == HttpURLConnection.HTTP_OK) {
+            // read raw bytes and decode once, keeping the newlines the rule parser depends on
+            try (InputStream in = openBody(conn)) {
+                String body = HttpBodies.read(in, conn.getContentType(), new HttpBody(), config.getMaxBodyBytes())
+                        .toString();
+                return new HttpResult(responseCode, body, etag, lastModified);
+            }
+        } else if (responseCode != HttpURLConnection.HTTP_NOT_MODIFIED) {
+            log.warning("GET request not worked, response code: " + responseCode);
         }
-        return "";
+        return new HttpResult(responseCode, "", etag, lastModified);
     }
 
-    private String followRedirects(String url, int redirectCount) throws IOException {
+    /**
+     * Open a connection, following redirects manually
+     *
+     * @return connection whose response is not a redirect
+     */
+    private HttpURLConnection connect(String url, Map<String, String> headers, int redirectCount) throws IOException {
         if (redirectCount > MAX_REDIRECTS) {
             throw new IOException("Too many redirects");
         }
@@ -52,19 +152,24 @@ public class UrlConnectionHttpService implements HttpService {
         HttpURLConnection conn = (HttpURLConnection) obj.openConnection();
         // 禁用自动重定向
         conn.setInstanceFollowRedirects(false);
+        conn.setConnectTimeout(config.getConnectTimeoutMillis());
+        conn.setReadTimeout(config.getReadTimeoutMillis());
+        conn.setRequestProperty("Accept-Encoding", HttpBodies.ACCEPT_ENCODING);
+        headers.forEach(conn::setRequestProperty);
         int responseCode = conn.getResponseCode();
         if (responseCode == HttpURLConnection.HTTP_MOVED_PERM || responseCode == HttpURLConnection.HTTP_MOVED_TEMP) {
             String newUrl = conn.getHeaderField("Location");
             log.info("Redirecting to URL: " + newUrl);
-            return followRedirects(newUrl, redirectCount + 1);
-        } else if (responseCode == HttpURLConnection.HTTP_OK) {
-            try (BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-                return in.lines().collect(Collectors.joining());
-            }
-        } else {
-            log.warning("GET request not worked, response code: " + responseCode);
+            return connect(newUrl, headers, redirectCount + 1);
         }
-        return "";
+        return conn;
+    }
+
+    /**
+     * Decompressed and size-limited response body
+     */
+    private InputStream openBody(HttpURLConnection conn) throws IOException {
+        return HttpBodies.decode(conn.getInputStream(), conn.getContentEncoding(), config.getMaxBodyBytes());
     }
 
     /**
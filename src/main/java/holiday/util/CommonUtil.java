@@ -1,12 +1,13 @@
 package holiday.util;
 
-import holiday.Tuple;
 import lombok.experimental.UtilityClass;
 
-import java.util.Iterator;
-import java.util.Spliterators;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * 2024/9/10
@@ -18,18 +19,78 @@ import java.util.stream.StreamSupport;
 public class CommonUtil {
 
     /**
-     * 合并两个Iterator
-     * @param iterator1 iterator1
-     * @param iterator2 iterator2
-     * @return merged iterator
+     * 等待CompletableFuture完成, 将CompletionException中的原始异常抛出
+     * @param future future
+     * @param <T> 结果类型
+     * @return 结果
      */
-    public static Iterator<Tuple<String, String>> concatIterator(
-            Iterator<Tuple<String, String>> iterator1,
-            Iterator<Tuple<String, String>> iterator2) {
-        return Stream.concat(
-                StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator1, 0), false),
-                StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator2, 0), false)
-        ).iterator();
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * url的host, 用于按host限速和熔断, 无法解析时返回url本身
+     * @param url url
+     * @return host
+     */
+    public static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? url : host;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    /**
+     * UTF-8编码后的字节数, 不实际编码
+     * @param value 字符串
+     * @return 字节数
+     */
+    public static long utf8Length(CharSequence value) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * UTF-8编码后的SHA-256
+     * @param value 字符串
+     * @return 小写十六进制
+     */
+    public static String sha256Hex(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
 }
@@ -0,0 +1,181 @@
+package holiday.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.LocalDate;
+
+/**
+ * 以epoch-day(距1970-01-01的天数)表示日期的工具方法
+ * 2026/10/17
+ *
+ * @author Href
+ * @version 1.0.0
+ */
+@UtilityClass
+public class DateUtil {
+
+    /**
+     * 0000-01-01至1970-01-01的天数
+     */
+    private static final int DAYS_0000_TO_1970 = 719528;
+
+    /**
+     * 400年周期的天数
+     */
+    private static final int DAYS_PER_CYCLE = 146097;
+
+    /**
+     * 年月日转epoch-day, 非法日期与{@link LocalDate#of(int, int, int)}抛出相同的异常
+     *
+     * @param year 年
+     * @param month 月
+     * @param day 日
+     * @return epoch-day
+     */
+    public static int toEpochDay(int year, int month, int day) {
+        if (year < -1_000_000 || year > 1_000_000
+                || month < 1 || month > 12
+                || day < 1 || day > lengthOfMonth(year, month)) {
+            // 交给LocalDate抛出对应的DateTimeException
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        }
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return (int) (total - DAYS_0000_TO_1970);
+    }
+
+    /**
+     * epoch-day所在的年
+     *
+     * @param epochDay epoch-day
+     * @return 年
+     */
+    public static int yearOf(int epochDay) {
+        int marchDoy0 = marchDayOfYear(epochDay);
+        return marchYear(epochDay) + (marchDoy0 * 5 + 2) / 153 / 10;
+    }
+
+    /**
+     * epoch-day所在的月
+     *
+     * @param epochDay epoch-day
+     * @return 月(1-12)
+     */
+    public static int monthOf(int epochDay) {
+        int marchMonth0 = (marchDayOfYear(epochDay) * 5 + 2) / 153;
+        return (marchMonth0 + 2) % 12 + 1;
+    }
+
+    /**
+     * epoch-day所在的日
+     *
+     * @param epochDay epoch-day
+     * @return 日(1-31)
+     */
+    public static int dayOfMonthOf(int epochDay) {
+        int marchDoy0 = marchDayOfYear(epochDay);
+        int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+        return marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+    }
+
+    /**
+     * epoch-day是星期几
+     *
+     * @param epochDay epoch-day
+     * @return 星期(1-7, 周一为1)
+     */
+    public static int dayOfWeekOf(int epochDay) {
+        return Math.floorMod(epochDay + 3, 7) + 1;
+    }
+
+    /**
+     * 是否为周末
+     *
+     * @param epochDay epoch-day
+     * @return 是否为周六或周日
+     */
+    public static boolean isWeekend(int epochDay) {
+        return dayOfWeekOf(epochDay) >= 6;
+    }
+
+    /**
+     * 是否为闰年
+     *
+     * @param year 年
+     * @return 是否为闰年
+     */
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * 月份天数
+     *
+     * @param year 年
+     * @param month 月
+     * @return 天数
+     */
+    public static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * 以3月1日为年初的年份(与{@link LocalDate#ofEpochDay(long)}相同的算法)
+     */
+    private static int marchYear(int epochDay) {
+        long zeroDay = (long) epochDay + DAYS_0000_TO_1970 - 60;
+        long adjust = 0;
+        if (zeroDay < 0) {
+            long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+            adjust = adjustCycles * 400;
+            zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+        }
+        long yearEst = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+        long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        if (doyEst < 0) {
+            yearEst--;
+        }
+        return (int) (yearEst + adjust);
+    }
+
+    /**
+     * 以3月1日为年初的年内天数(从0开始)
+     */
+    private static int marchDayOfYear(int epochDay) {
+        long zeroDay = (long) epochDay + DAYS_0000_TO_1970 - 60;
+        if (zeroDay < 0) {
+            long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+            zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+        }
+        long yearEst = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+        long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        if (doyEst < 0) {
+            yearEst--;
+            doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        }
+        return (int) doyEst;
+    }
+}